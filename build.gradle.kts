@@ -21,6 +21,13 @@ repositories {
     maven("https://mvn.lumine.io/repository/maven-public/")
 }
 
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+}
+
 dependencies {
     implementation("de.eldoria", "eldo-util", "1.14.5")
     implementation("net.kyori", "adventure-api", "4.17.0")
@@ -36,6 +43,11 @@ dependencies {
     compileOnly("nl.pim16aap2", "BigDoors", "0.1.8.46")
     compileOnly("io.lumine", "Mythic-Dist", "5.6.2")
     testImplementation("org.junit.jupiter", "junit-jupiter-api", "5.11.0")
+    testImplementation("org.spigotmc", "spigot-api", "1.13.2-R0.1-SNAPSHOT")
+    testRuntimeOnly("org.junit.jupiter", "junit-jupiter-engine", "5.11.0")
+
+    "jmhImplementation"("org.openjdk.jmh", "jmh-core", "1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh", "jmh-generator-annprocess", "1.37")
 }
 
 license {
@@ -105,12 +117,23 @@ tasks {
     }
 
     test {
-        useJUnit()
+        useJUnitPlatform()
         testLogging {
             events("passed", "skipped", "failed")
         }
     }
 
+    register<JavaExec>("jmh") {
+        group = "verification"
+        description = "Runs the benchmarks of the jmh source set. Pass a filter with -Pjmh=<regex>."
+        dependsOn("jmhClasses")
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        if (project.hasProperty("jmh")) {
+            args(project.property("jmh").toString())
+        }
+    }
+
     register<Copy>("copyToServer") {
         val path = project.property("targetDir") ?: ""
         if (path.toString().isEmpty()) {
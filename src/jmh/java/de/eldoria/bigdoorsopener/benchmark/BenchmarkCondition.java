@@ -0,0 +1,114 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.benchmark;
+
+import de.eldoria.bigdoorsopener.conditions.DoorCondition;
+import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
+import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.conditions.Scope;
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import de.eldoria.eldoutilities.localization.ILocalizer;
+import net.kyori.adventure.text.Component;
+import org.bukkit.World;
+import org.bukkit.configuration.serialization.SerializableAs;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A condition with a fixed result which burns a defined amount of cpu on evaluation.
+ */
+public abstract class BenchmarkCondition implements DoorCondition {
+    private static boolean registered;
+    protected final Boolean state;
+    private final long tokens;
+
+    protected BenchmarkCondition(Boolean state, long tokens) {
+        this.state = state;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Registers the benchmark conditions at the condition registrar.
+     */
+    public static synchronized void register() {
+        if (registered) return;
+        registered = true;
+        ConditionRegistrar.registerCondition(ConditionContainer.ofClass(Cheap.class, Scope.WORLD)
+                .withMeta("cheap", ConditionContainer.Builder.Cost.WORLD_LOW.cost).build());
+        ConditionRegistrar.registerCondition(ConditionContainer.ofClass(Medium.class, Scope.PLAYER)
+                .withMeta("medium", ConditionContainer.Builder.Cost.PLAYER_MEDIUM.cost).build());
+        ConditionRegistrar.registerCondition(ConditionContainer.ofClass(Expensive.class, Scope.PLAYER)
+                .withMeta("expensive", ConditionContainer.Builder.Cost.PLAYER_HIGH.cost).build());
+    }
+
+    @Override
+    public Boolean isOpen(@Nullable Player player, @NotNull World world, @NotNull ConditionalDoor door, boolean currentState) {
+        Blackhole.consumeCPU(tokens);
+        return state;
+    }
+
+    @Override
+    public Component getDescription(ILocalizer localizer) {
+        return Component.empty();
+    }
+
+    @Override
+    public String getCreationCommand(ConditionalDoor door) {
+        return "";
+    }
+
+    @Override
+    public String getRemoveCommand(ConditionalDoor door) {
+        return "";
+    }
+
+    @Override
+    public @NotNull Map<String, Object> serialize() {
+        return Collections.emptyMap();
+    }
+
+    @SerializableAs("benchmarkCheapCondition")
+    public static final class Cheap extends BenchmarkCondition {
+        public Cheap(Boolean state) {
+            super(state, 10);
+        }
+
+        @Override
+        public Cheap clone() {
+            return new Cheap(state);
+        }
+    }
+
+    @SerializableAs("benchmarkMediumCondition")
+    public static final class Medium extends BenchmarkCondition {
+        public Medium(Boolean state) {
+            super(state, 100);
+        }
+
+        @Override
+        public Medium clone() {
+            return new Medium(state);
+        }
+    }
+
+    @SerializableAs("benchmarkExpensiveCondition")
+    public static final class Expensive extends BenchmarkCondition {
+        public Expensive(Boolean state) {
+            super(state, 1000);
+        }
+
+        @Override
+        public Expensive clone() {
+            return new Expensive(state);
+        }
+    }
+}
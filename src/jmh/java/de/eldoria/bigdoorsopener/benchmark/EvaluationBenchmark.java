@@ -0,0 +1,98 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.benchmark;
+
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import de.eldoria.bigdoorsopener.door.conditioncollections.ConditionBag;
+import de.eldoria.bigdoorsopener.door.evaluator.CompiledEvaluator;
+import de.eldoria.bigdoorsopener.util.JsSyntaxHelper;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the evaluation of a single door with the different evaluators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluationBenchmark {
+    private static final String EVALUATOR = "cheap and (medium or expensive)";
+
+    /**
+     * State of the cheap condition. If false all other conditions can be skipped.
+     */
+    @Param({"true", "false"})
+    public boolean cheapState;
+
+    private ConditionalDoor door;
+    private ConditionBag conditionBag;
+    private CompiledEvaluator compiled;
+    private World world;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        BenchmarkCondition.register();
+        world = Stubs.world("world");
+        player = Stubs.player("player");
+
+        conditionBag = new ConditionBag();
+        // insert in reverse cost order to show the effect of cost ordering
+        conditionBag.addConditionSilent(new BenchmarkCondition.Expensive(true));
+        conditionBag.addConditionSilent(new BenchmarkCondition.Medium(false));
+        conditionBag.addConditionSilent(new BenchmarkCondition.Cheap(cheapState));
+        door = new ConditionalDoor(1, "world", new Vector(0, 64, 0), conditionBag);
+        compiled = CompiledEvaluator.compile(EVALUATOR).orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public boolean and() {
+        return conditionBag.and(player, world, door, false);
+    }
+
+    @Benchmark
+    public boolean or() {
+        return conditionBag.or(player, world, door, false);
+    }
+
+    @Benchmark
+    public boolean compiledCustom() {
+        return compiled.evaluate(conditionBag, player, world, door, false);
+    }
+
+    @Benchmark
+    public String customString() {
+        return conditionBag.custom(EVALUATOR, player, world, door, false);
+    }
+
+    @Benchmark
+    public String translateEvaluator() {
+        return JsSyntaxHelper.translateEvaluator(EVALUATOR);
+    }
+
+    @Benchmark
+    public Object compileEvaluator() {
+        return CompiledEvaluator.compile(EVALUATOR);
+    }
+}
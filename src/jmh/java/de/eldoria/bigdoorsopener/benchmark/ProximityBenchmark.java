@@ -0,0 +1,62 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.benchmark;
+
+import de.eldoria.bigdoorsopener.conditions.location.Proximity;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the proximity forms against a set of random player positions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProximityBenchmark {
+    @Param({"CUBOID", "ELLIPSOID", "CYLINDER"})
+    public Proximity.ProximityForm form;
+
+    @Param({"100", "1000"})
+    public int players;
+
+    private final Vector door = new Vector(0, 64, 0);
+    private final Vector dimensions = new Vector(20, 10, 20);
+    private Vector[] positions;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        positions = new Vector[players];
+        for (int i = 0; i < players; i++) {
+            positions[i] = new Vector(random.nextInt(200) - 100, random.nextInt(128), random.nextInt(200) - 100);
+        }
+    }
+
+    @Benchmark
+    public void check(Blackhole blackhole) {
+        for (Vector position : positions) {
+            blackhole.consume(form.check.apply(door, position, dimensions));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.benchmark;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Stubbed bukkit objects. Only the methods required by the benchmarks are answered.
+ */
+public final class Stubs {
+    private Stubs() {
+    }
+
+    public static World world(String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return (World) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class[]{World.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                            return name;
+                        case "getUID":
+                            return uid;
+                        case "getFullTime":
+                            return 6000L;
+                        case "hasStorm":
+                            return false;
+                        case "hashCode":
+                            return uid.hashCode();
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    public static Player player(String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return (Player) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class[]{Player.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                            return name;
+                        case "getUniqueId":
+                            return uid;
+                        case "isOnline":
+                            return true;
+                        case "hashCode":
+                            return uid.hashCode();
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -51,7 +51,7 @@ public class BDOCommand extends EldoCommand {
         registerCommand("cloneDoor", new CloneDoor(doors, config));
         registerCommand("copyCondition", new CopyCondition(doors, config));
         registerCommand("giveKey", new GiveKey(doors, config));
-        registerCommand("info", new Info(doors, plugin, config));
+        registerCommand("info", new Info(doors, plugin, config, doorChecker));
         registerCommand("invertOpen", new InvertOpen(doors, config));
         registerCommand("list", new DoorList(doors, config));
         registerCommand("reload", new Reload(config, doorChecker, plugin));
@@ -11,6 +11,7 @@ import de.eldoria.bigdoorsopener.config.Config;
 import de.eldoria.bigdoorsopener.core.adapter.BigDoorsAdapterCommand;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.scheduler.DoorChecker;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.door.conditioncollections.ConditionBag;
 import de.eldoria.bigdoorsopener.util.C;
@@ -36,13 +37,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 
 public class Info extends BigDoorsAdapterCommand {
     private final BukkitAudiences bukkitAudiences;
+    private final DoorChecker doorChecker;
 
-    public Info(BigDoors bigDoors, Plugin plugin, Config config) {
+    public Info(BigDoors bigDoors, Plugin plugin, Config config, DoorChecker doorChecker) {
         super(bigDoors, config);
         bukkitAudiences = BukkitAudiences.create(plugin);
+        this.doorChecker = doorChecker;
     }
 
     @Override
@@ -94,6 +98,14 @@ public class Info extends BigDoorsAdapterCommand {
                         .clickEvent(ClickEvent.suggestCommand("/bdo stayOpen " + cDoor.doorUID() + " " + cDoor.stayOpen())))
                 .append(Component.newline());
 
+        // append refresh latency
+        OptionalDouble latency = doorChecker.refreshLatency(cDoor);
+        if (latency.isPresent()) {
+            component.append(Component.text(localizer().getMessage("info.refreshLatency") + " ", C.baseColor))
+                    .append(Component.text(String.format("%.1f", latency.getAsDouble()), C.highlightColor))
+                    .append(Component.newline());
+        }
+
         // start of key list
         component.append(Component.text(localizer().getMessage("info.conditions"), C.highlightColor, TextDecoration.BOLD));
 
@@ -8,6 +8,7 @@ package de.eldoria.bigdoorsopener.conditions;
 
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.eldoutilities.localization.ILocalizer;
@@ -40,6 +41,35 @@ public interface DoorCondition extends ConfigurationSerializable, Cloneable {
      */
     Boolean isOpen(@Nullable Player player, @NotNull World world, @NotNull ConditionalDoor door, @NotNull boolean currentState);
 
+    /**
+     * Indicates if the key would open the door under the current circumstances.
+     * <p>
+     * The context is shared by all conditions which are evaluated for the player in the same tick. Conditions should
+     * override this method to use the snapshot values of the context instead of querying the player. By default the
+     * call is delegated to {@link #isOpen(Player, World, ConditionalDoor, boolean)}.
+     *
+     * @param context      context of the player which should be checked. Is null if the condition is {@link
+     *                     Scope#WORLD}
+     * @param world        world of the door
+     * @param door         door data
+     * @param currentState the current state of the door.
+     * @return true if the key settings are matched.
+     */
+    default Boolean isOpen(@Nullable PlayerContext context, @NotNull World world, @NotNull ConditionalDoor door, boolean currentState) {
+        return isOpen(context == null ? null : context.player(), world, door, currentState);
+    }
+
+    /**
+     * Indicates if the condition changes its internal state when it is evaluated. The result of such a condition depends
+     * on the evaluations before. Stateful conditions keep their declared position when the conditions of a door are
+     * ordered by cost.
+     *
+     * @return true if the condition is stateful
+     */
+    default boolean isStateful() {
+        return false;
+    }
+
     /**
      * Get the description of the door condition.
      *
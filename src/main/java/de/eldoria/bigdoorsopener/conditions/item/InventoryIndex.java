@@ -0,0 +1,235 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.conditions.item;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Counts the key items of item conditions in the inventories of players.
+ * <p>
+ * Every distinct key item is registered once as a {@link Key}. The inventory of a player is counted on the first
+ * request and the counts of all keys are remembered. Events which change the inventory drop the counts of the player.
+ * Inventory changes by other plugins do not fire events. Therefore the counts are also dropped after a short time.
+ * <p>
+ * Must only be accessed from the main thread.
+ */
+public class InventoryIndex implements Listener {
+    /**
+     * Milliseconds until the counts of a player are dropped, even if no inventory event was fired.
+     */
+    private static final long MAX_AGE_MILLIS = 5 * 1000;
+
+    private final Map<Material, List<Key>> keys = new EnumMap<>(Material.class);
+    private final Map<UUID, Counts> players = new HashMap<>();
+
+    /**
+     * Registers a key item. Items which are similar to a already registered item share the same key.
+     *
+     * @param item key item
+     * @return key of the item
+     */
+    public Key register(ItemStack item) {
+        List<Key> candidates = keys.computeIfAbsent(item.getType(), k -> new ArrayList<>());
+        for (Key key : candidates) {
+            if (key.item.isSimilar(item)) return key;
+        }
+        Key key = new Key(item);
+        candidates.add(key);
+        // counted inventories do not contain the new key.
+        players.clear();
+        return key;
+    }
+
+    /**
+     * Get the amount of a key item in the inventory of a player. The off hand and the armor slots are not included.
+     *
+     * @param player player to check
+     * @param key    key of the item
+     * @return amount of the item
+     */
+    public int owned(Player player, Key key) {
+        return counts(player).owned.getOrDefault(key, 0);
+    }
+
+    /**
+     * Get the amount of a key item in the main hand of a player.
+     *
+     * @param player player to check
+     * @param key    key of the item
+     * @return amount of the item or 0 if the player holds another item
+     */
+    public int mainHand(Player player, Key key) {
+        Counts counts = counts(player);
+        return counts.mainHand == key ? counts.mainHandAmount : 0;
+    }
+
+    /**
+     * Get the amount of a key item in the off hand of a player.
+     *
+     * @param player player to check
+     * @param key    key of the item
+     * @return amount of the item or 0 if the player holds another item
+     */
+    public int offHand(Player player, Key key) {
+        Counts counts = counts(player);
+        return counts.offHand == key ? counts.offHandAmount : 0;
+    }
+
+    /**
+     * Drops the counts of a player. The inventory will be counted again on the next request.
+     *
+     * @param player player to invalidate
+     */
+    public void invalidate(Player player) {
+        players.remove(player.getUniqueId());
+    }
+
+    private Counts counts(Player player) {
+        Counts counts = players.get(player.getUniqueId());
+        long now = System.currentTimeMillis();
+        if (counts == null || counts.created + MAX_AGE_MILLIS < now) {
+            counts = count(player.getInventory(), now);
+            players.put(player.getUniqueId(), counts);
+        }
+        return counts;
+    }
+
+    private Counts count(PlayerInventory inventory, long now) {
+        Counts counts = new Counts(now);
+        for (ItemStack stack : inventory.getStorageContents()) {
+            Key key = match(stack);
+            if (key == null) continue;
+            counts.owned.merge(key, stack.getAmount(), Integer::sum);
+        }
+        ItemStack mainHand = inventory.getItemInMainHand();
+        counts.mainHand = match(mainHand);
+        counts.mainHandAmount = counts.mainHand == null ? 0 : mainHand.getAmount();
+        ItemStack offHand = inventory.getItemInOffHand();
+        counts.offHand = match(offHand);
+        counts.offHandAmount = counts.offHand == null ? 0 : offHand.getAmount();
+        return counts;
+    }
+
+    private Key match(ItemStack stack) {
+        if (stack == null) return null;
+        List<Key> candidates = keys.get(stack.getType());
+        if (candidates == null) return null;
+        for (Key key : candidates) {
+            if (key.item.isSimilar(stack)) return key;
+        }
+        return null;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player) {
+            invalidate((Player) event.getWhoClicked());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player) {
+            invalidate((Player) event.getWhoClicked());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player) {
+            invalidate((Player) event.getEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemConsume(PlayerItemConsumeEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    /**
+     * A registered key item. Keys are compared by identity.
+     */
+    public static final class Key {
+        private final ItemStack item;
+
+        private Key(ItemStack item) {
+            this.item = item.clone();
+        }
+    }
+
+    private static final class Counts {
+        private final Map<Key, Integer> owned = new HashMap<>();
+        private final long created;
+        private Key mainHand;
+        private int mainHandAmount;
+        private Key offHand;
+        private int offHandAmount;
+
+        private Counts(long created) {
+            this.created = created;
+        }
+    }
+}
@@ -7,6 +7,8 @@
 package de.eldoria.bigdoorsopener.conditions.item;
 
 import de.eldoria.bigdoorsopener.conditions.DoorCondition;
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.util.C;
 import de.eldoria.eldoutilities.localization.ILocalizer;
@@ -33,6 +35,7 @@ import java.util.Map;
 public abstract class Item implements DoorCondition {
     private final ItemStack item;
     private final boolean consumed;
+    private InventoryIndex.Key key;
 
     /**
      * Creates a new item key
@@ -73,9 +76,34 @@ public abstract class Item implements DoorCondition {
      * @return true if the player has the item in one of his hands.
      */
     protected boolean hasPlayerItemInHand(Player player) {
+        InventoryIndex index = BigDoorsOpener.inventoryIndex();
+        if (index != null) {
+            InventoryIndex.Key key = key(index);
+            return index.mainHand(player, key) >= item.getAmount() || index.offHand(player, key) >= item.getAmount();
+        }
         return hasPlayerItemInMainHand(player) || hasPlayerItemInOffHand(player);
     }
 
+    /**
+     * Checks if a player has a item in the off or main hand.
+     *
+     * @param context context of the player to check
+     * @return true if the player has the item in one of his hands.
+     */
+    protected boolean hasPlayerItemInHand(PlayerContext context) {
+        if (BigDoorsOpener.inventoryIndex() != null) {
+            return hasPlayerItemInHand(context.player());
+        }
+        return isItemInHand(context.mainHand()) || isItemInHand(context.offHand());
+    }
+
+    private boolean isItemInHand(ItemStack item) {
+        if (item.getAmount() < item().getAmount()) {
+            return false;
+        }
+        return item.isSimilar(item());
+    }
+
     /**
      * Checks if a player has a item in the main hand.
      *
@@ -83,11 +111,7 @@ public abstract class Item implements DoorCondition {
      * @return true if the player has the item in his main hand.
      */
     private boolean hasPlayerItemInMainHand(Player player) {
-        ItemStack item = player.getInventory().getItemInMainHand();
-        if (item.getAmount() < this.item.getAmount()) {
-            return false;
-        }
-        return item.isSimilar(item());
+        return isItemInHand(player.getInventory().getItemInMainHand());
     }
 
     /**
@@ -97,11 +121,7 @@ public abstract class Item implements DoorCondition {
      * @return true if the player has the item in his main hands.
      */
     private boolean hasPlayerItemInOffHand(Player player) {
-        ItemStack item = player.getInventory().getItemInOffHand();
-        if (item.getAmount() < item().getAmount()) {
-            return false;
-        }
-        return item.isSimilar(item());
+        return isItemInHand(player.getInventory().getItemInOffHand());
     }
 
     /**
@@ -111,6 +131,10 @@ public abstract class Item implements DoorCondition {
      * @return true if the player has the item in his inventory.
      */
     protected boolean hasPlayerItemInInventory(Player player) {
+        InventoryIndex index = BigDoorsOpener.inventoryIndex();
+        if (index != null) {
+            return index.owned(player, key(index)) >= item.getAmount();
+        }
         PlayerInventory inventory = player.getInventory();
         return inventory.containsAtLeast(item(), item().getAmount());
     }
@@ -147,6 +171,7 @@ public abstract class Item implements DoorCondition {
     protected void takeFromInventory(Player player) {
         player.getInventory().removeItem(item());
         player.updateInventory();
+        invalidate(player);
     }
 
     /**
@@ -157,14 +182,36 @@ public abstract class Item implements DoorCondition {
     protected boolean tryTakeFromHands(Player player) {
         if (hasPlayerItemInMainHand(player)) {
             takeFromMainHand(player);
+            invalidate(player);
             return true;
         } else if (hasPlayerItemInOffHand(player)) {
             takeFromOffHand(player);
+            invalidate(player);
             return true;
         }
         return false;
     }
 
+    /**
+     * Get the key of the item in the inventory index. The key is registered on first access.
+     *
+     * @param index inventory index
+     * @return key of the item
+     */
+    private InventoryIndex.Key key(InventoryIndex index) {
+        if (key == null) {
+            key = index.register(item);
+        }
+        return key;
+    }
+
+    private void invalidate(Player player) {
+        InventoryIndex index = BigDoorsOpener.inventoryIndex();
+        if (index != null) {
+            index.invalidate(player);
+        }
+    }
+
     @Override
     public @NotNull Map<String, Object> serialize() {
         return SerializationUtil.newBuilder()
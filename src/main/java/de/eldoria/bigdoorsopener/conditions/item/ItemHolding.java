@@ -9,6 +9,7 @@ package de.eldoria.bigdoorsopener.conditions.item;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.eldoutilities.localization.ILocalizer;
@@ -106,6 +107,11 @@ public class ItemHolding extends Item {
         return hasPlayerItemInHand(player);
     }
 
+    @Override
+    public Boolean isOpen(PlayerContext context, World world, ConditionalDoor door, boolean currentState) {
+        return hasPlayerItemInHand(context);
+    }
+
     @Override
     public Component getDescription(ILocalizer localizer) {
         Optional<ConditionContainer> containerByClass = ConditionRegistrar.getContainerByClass(getClass());
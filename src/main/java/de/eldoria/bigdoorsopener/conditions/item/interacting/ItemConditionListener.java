@@ -11,13 +11,19 @@ import de.eldoria.bigdoorsopener.config.Config;
 import de.eldoria.bigdoorsopener.core.adapter.BigDoorsAdapter;
 import de.eldoria.bigdoorsopener.core.events.ConditionAddedEvent;
 import de.eldoria.bigdoorsopener.core.events.ConditionRemovedEvent;
+import de.eldoria.bigdoorsopener.core.scheduler.DoorChecker;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import de.eldoria.bigdoorsopener.util.LongMap;
 import nl.pim16aap2.bigDoors.BigDoors;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.util.BlockVector;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,16 +31,73 @@ import java.util.Optional;
 
 /**
  * This listener controls when a player tries to open a door with a item.
+ * <p>
+ * Most interactions on a server are not related to any door. The materials of all registered key items and the
+ * positions of all item blocks are kept in a filter. Interactions which can not match any condition are rejected
+ * before a interaction key is built.
  */
 public class ItemConditionListener extends BigDoorsAdapter implements Listener {
     private final Map<InteractionKey, List<ItemInteraction>> interactions = new HashMap<>();
+    private final Map<ItemInteraction, ConditionalDoor> owners = new HashMap<>();
+    private final DoorChecker doorChecker;
+    // filter for interactions. Counts the registered conditions per material and block.
+    private final Map<Material, Integer> clickMaterials = new EnumMap<>(Material.class);
+    private final Map<Material, Integer> blockMaterials = new EnumMap<>(Material.class);
+    private final Map<String, LongMap<Integer>> blockPositions = new HashMap<>();
+
+    private static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private static void count(Map<Material, Integer> materials, Material material, int delta) {
+        materials.merge(material, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
 
     private void register(ConditionalDoor door, ItemInteraction interaction) {
         getOrComputeConditions(getKey(door, interaction)).add(interaction);
+        owners.put(interaction, door);
+        updateFilter(door, interaction, 1);
     }
 
     private void unregister(ConditionalDoor door, ItemInteraction interaction) {
-        getOrComputeConditions(getKey(door, interaction)).remove(interaction);
+        if (getOrComputeConditions(getKey(door, interaction)).remove(interaction)) {
+            updateFilter(door, interaction, -1);
+        }
+        owners.remove(interaction);
+    }
+
+    private void updateFilter(ConditionalDoor door, ItemInteraction interaction, int delta) {
+        Material material = interaction.item().getType();
+        if (interaction instanceof ItemClick) {
+            count(clickMaterials, material, delta);
+            return;
+        }
+        BlockVector position = ((ItemBlock) interaction).position();
+        if (position == null) return;
+        count(blockMaterials, material, delta);
+        LongMap<Integer> positions = blockPositions.computeIfAbsent(door.world(), k -> new LongMap<>());
+        long key = blockKey(position.getBlockX(), position.getBlockY(), position.getBlockZ());
+        Integer current = positions.get(key);
+        int amount = (current == null ? 0 : current) + delta;
+        if (amount <= 0) {
+            positions.remove(key);
+        } else {
+            positions.put(key, amount);
+        }
+    }
+
+    /**
+     * Checks if a interaction may match a item block condition.
+     *
+     * @param event    interaction event
+     * @param material material of the item used for the interaction
+     * @return true if a item block condition may match
+     */
+    private boolean isBlockCandidate(PlayerInteractEvent event, Material material) {
+        if (!event.hasBlock() || !blockMaterials.containsKey(material)) return false;
+        Block block = event.getClickedBlock();
+        LongMap<Integer> positions = blockPositions.get(block.getWorld().getName());
+        return positions != null && positions.containsKey(blockKey(block.getX(), block.getY(), block.getZ()));
     }
 
     private List<ItemInteraction> getOrComputeConditions(InteractionKey key) {
@@ -51,8 +114,9 @@ public class ItemConditionListener extends BigDoorsAdapter implements Listener {
         throw new IllegalStateException("Unknown condition of type " + interaction.getClass());
     }
 
-    public ItemConditionListener(BigDoors bigDoors, Config config) {
+    public ItemConditionListener(BigDoors bigDoors, Config config, DoorChecker doorChecker) {
         super(bigDoors);
+        this.doorChecker = doorChecker;
         for (ConditionalDoor door : config.getDoors()) {
             for (DoorCondition condition : door.conditionBag().getConditions("item")) {
                 if (condition instanceof ItemInteraction) {
@@ -77,7 +141,11 @@ public class ItemConditionListener extends BigDoorsAdapter implements Listener {
     }
 
     private void notify(InteractionKey key, PlayerInteractEvent event) {
-        getConditions(key).ifPresent(c -> c.forEach(con -> con.clicked(event)));
+        getConditions(key).ifPresent(c -> c.forEach(con -> {
+            con.clicked(event);
+            // the click changed the state of the condition. Evaluate the door in the next tick.
+            doorChecker.scheduleEvaluation(owners.get(con));
+        }));
     }
 
     private Optional<List<ItemInteraction>> getConditions(InteractionKey key) {
@@ -86,7 +154,15 @@ public class ItemConditionListener extends BigDoorsAdapter implements Listener {
 
     @EventHandler
     public void onItemInteract(PlayerInteractEvent event) {
-        BlockInteractionKey.of(event).ifPresent(key -> notify(key, event));
-        ClickInteractionKey.of(event).ifPresent(key -> notify(key, event));
+        // physical interactions have no hand. The interaction keys use the off hand in this case.
+        Material material = event.getHand() == null
+                ? event.getPlayer().getInventory().getItemInOffHand().getType()
+                : event.getMaterial();
+        if (isBlockCandidate(event, material)) {
+            BlockInteractionKey.of(event).ifPresent(key -> notify(key, event));
+        }
+        if (clickMaterials.containsKey(material)) {
+            ClickInteractionKey.of(event).ifPresent(key -> notify(key, event));
+        }
     }
 }
@@ -8,6 +8,7 @@ package de.eldoria.bigdoorsopener.conditions.location;
 
 import de.eldoria.bigdoorsopener.conditions.DoorCondition;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import org.bukkit.util.BoundingBox;
 
 public interface Location extends DoorCondition {
     @Override
@@ -15,6 +16,17 @@ public interface Location extends DoorCondition {
         return REMOVE_COMMAND + door.doorUID() + " location";
     }
 
+    /**
+     * Get the area in which a player can fulfill this condition. Doors are evaluated more often while a player is close
+     * to this area.
+     *
+     * @param door door of the condition
+     * @return area of the condition or null if the area is unknown
+     */
+    default BoundingBox bounds(ConditionalDoor door) {
+        return null;
+    }
+
     @Override
     Location clone();
 }
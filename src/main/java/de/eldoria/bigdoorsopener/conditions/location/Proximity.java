@@ -9,6 +9,7 @@ package de.eldoria.bigdoorsopener.conditions.location;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.util.C;
@@ -26,6 +27,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.World;
 import org.bukkit.configuration.serialization.SerializableAs;
 import org.bukkit.entity.Player;
+import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 
@@ -139,10 +141,17 @@ public class Proximity implements Location {
 
     @Override
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
-        Vector vector = player.getLocation().toVector();
-        return proximityForm.check.apply(door.position(),
-                new Vector(vector.getBlockX(), vector.getBlockY(), vector.getBlockZ()),
-                dimensions);
+        return isOpen(PlayerContext.current(player), world, door, currentState);
+    }
+
+    @Override
+    public Boolean isOpen(PlayerContext context, World world, ConditionalDoor door, boolean currentState) {
+        return proximityForm.check.apply(door.position(), context.blockPosition(), dimensions);
+    }
+
+    @Override
+    public BoundingBox bounds(ConditionalDoor door) {
+        return BoundingBox.of(door.position(), dimensions.getX(), dimensions.getY(), dimensions.getZ());
     }
 
     @Override
@@ -6,14 +6,15 @@
 
 package de.eldoria.bigdoorsopener.conditions.location;
 
-import com.google.common.cache.Cache;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.util.C;
@@ -27,13 +28,12 @@ import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.configuration.serialization.SerializableAs;
 import org.bukkit.entity.Player;
+import org.bukkit.util.BoundingBox;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.logging.Level;
 
 import static de.eldoria.bigdoorsopener.commands.CommandHelper.argumentsInvalid;
 
@@ -47,8 +47,6 @@ public class Region implements Location {
     private final String worldName;
     private final String regionId;
 
-    private final Cache<org.bukkit.Location, Boolean> cache = C.getExpiringCache();
-
     public Region(ProtectedRegion region, World world) {
         this.region = region;
         this.world = world;
@@ -128,16 +126,22 @@ public class Region implements Location {
 
     @Override
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
+        return isOpen(PlayerContext.current(player), world, door, currentState);
+    }
+
+    @Override
+    public Boolean isOpen(PlayerContext context, World world, ConditionalDoor door, boolean currentState) {
         if (world != this.world) return false;
         if (region == null) return null;
-        try {
-            return cache.get(player.getLocation(), () ->
-                    region.contains(BukkitAdapter.asBlockVector(player.getLocation()))
-            );
-        } catch (ExecutionException e) {
-            BigDoorsOpener.logger().log(Level.WARNING, "Could not compute value", e);
-        }
-        return null;
+        return BigDoorsOpener.regionMembership().contains(context, region);
+    }
+
+    @Override
+    public BoundingBox bounds(ConditionalDoor door) {
+        if (region == null) return null;
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        return new BoundingBox(min.getX(), min.getY(), min.getZ(), max.getX() + 1, max.getY() + 1, max.getZ() + 1);
     }
 
     @Override
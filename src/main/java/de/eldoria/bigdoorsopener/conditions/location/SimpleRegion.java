@@ -6,10 +6,10 @@
 
 package de.eldoria.bigdoorsopener.conditions.location;
 
-import com.google.common.cache.Cache;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.core.listener.registration.InteractionRegistrationObject;
 import de.eldoria.bigdoorsopener.core.listener.registration.RegisterInteraction;
@@ -28,15 +28,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.util.BlockVector;
-import org.bukkit.util.Vector;
+import org.bukkit.util.BoundingBox;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.logging.Level;
 
 @SerializableAs("simpleRegionCondition")
 public class SimpleRegion implements Location {
@@ -44,8 +41,6 @@ public class SimpleRegion implements Location {
     private final BlockVector maximum;
     private final String world;
 
-    private final Cache<org.bukkit.Location, Boolean> cache = C.getExpiringCache(10, TimeUnit.SECONDS);
-
     public SimpleRegion(BlockVector first, BlockVector second, String world) {
         this.world = world;
         this.minimum = BlockVector.getMinimum(first, second).toBlockVector();
@@ -96,17 +91,24 @@ public class SimpleRegion implements Location {
 
     @Override
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
-        try {
-            return cache.get(player.getLocation(), () -> {
-                Vector pos = player.getLocation().toVector();
-                if (pos.getX() > maximum.getX() || pos.getX() < minimum.getX()) return false;
-                if (pos.getY() > maximum.getY() || pos.getY() < minimum.getY()) return false;
-                return !(pos.getZ() > maximum.getZ()) && !(pos.getZ() < minimum.getZ());
-            });
-        } catch (ExecutionException e) {
-            BigDoorsOpener.logger().log(Level.WARNING, "Could not compute value", e);
-        }
-        return null;
+        return isOpen(PlayerContext.current(player), world, door, currentState);
+    }
+
+    @Override
+    public Boolean isOpen(PlayerContext context, World world, ConditionalDoor door, boolean currentState) {
+        return contains(context.blockX(), context.blockY(), context.blockZ());
+    }
+
+    private boolean contains(int x, int y, int z) {
+        if (x > maximum.getBlockX() || x < minimum.getBlockX()) return false;
+        if (y > maximum.getBlockY() || y < minimum.getBlockY()) return false;
+        return z <= maximum.getBlockZ() && z >= minimum.getBlockZ();
+    }
+
+    @Override
+    public BoundingBox bounds(ConditionalDoor door) {
+        return new BoundingBox(minimum.getX(), minimum.getY(), minimum.getZ(),
+                maximum.getX() + 1, maximum.getY() + 1, maximum.getZ() + 1);
     }
 
     @Override
@@ -6,7 +6,6 @@
 
 package de.eldoria.bigdoorsopener.conditions.permission;
 
-import com.google.common.cache.Cache;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.adapter.BigDoorsAdapter;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
@@ -21,7 +20,6 @@ import de.eldoria.eldoutilities.serialization.TypeResolvingMap;
 import de.eldoria.eldoutilities.utils.ArrayUtil;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import nl.pim16aap2.bigDoors.Door;
 import org.bukkit.World;
 import org.bukkit.configuration.serialization.SerializableAs;
 import org.bukkit.entity.Player;
@@ -30,10 +28,6 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 import static de.eldoria.bigdoorsopener.commands.CommandHelper.argumentsInvalid;
@@ -44,7 +38,6 @@ import static de.eldoria.bigdoorsopener.commands.CommandHelper.argumentsInvalid;
 @SerializableAs("doorPermissionCondition")
 public class DoorPermission extends BigDoorsAdapter implements Permission {
     private final int permissionLevel;
-    private final Cache<UUID, Boolean> cache = C.getExpiringCache(30, TimeUnit.SECONDS);
 
     public DoorPermission(int permissionLevel) {
         super(BigDoorsOpener.getBigDoors());
@@ -102,17 +95,8 @@ public class DoorPermission extends BigDoorsAdapter implements Permission {
 
     @Override
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
-        try {
-            return cache.get(player.getUniqueId(), () -> {
-                Door d = getDoor(player, door.doorUID());
-                if (d == null) return false;
-                int permission = d.getPermission();
-                return permission <= permissionLevel && permission >= 0;
-            });
-        } catch (ExecutionException e) {
-            BigDoorsOpener.logger().log(Level.WARNING, "Calucation of door ownership failed. Please report this.", e);
-            return false;
-        }
+        int permission = BigDoorsOpener.doorOwnership().getPermission(player, door.doorUID());
+        return permission <= permissionLevel && permission >= 0;
     }
 
     @Override
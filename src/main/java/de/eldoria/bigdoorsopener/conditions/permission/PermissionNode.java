@@ -9,6 +9,7 @@ package de.eldoria.bigdoorsopener.conditions.permission;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.util.C;
@@ -76,6 +77,11 @@ public class PermissionNode implements Permission {
         return player.hasPermission(permission);
     }
 
+    @Override
+    public Boolean isOpen(PlayerContext context, World world, ConditionalDoor door, boolean currentState) {
+        return context.hasPermission(permission);
+    }
+
     @Override
     public Component getDescription(ILocalizer localizer) {
         Optional<ConditionContainer> containerByClass = ConditionRegistrar.getContainerByClass(getClass());
@@ -14,12 +14,12 @@ import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.util.C;
 import de.eldoria.bigdoorsopener.util.JsSyntaxHelper;
+import de.eldoria.bigdoorsopener.util.PlaceholderExpression;
 import de.eldoria.eldoutilities.container.Pair;
 import de.eldoria.eldoutilities.localization.ILocalizer;
 import de.eldoria.eldoutilities.localization.Replacement;
 import de.eldoria.eldoutilities.serialization.SerializationUtil;
 import de.eldoria.eldoutilities.serialization.TypeResolvingMap;
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.World;
@@ -40,6 +40,7 @@ import static de.eldoria.bigdoorsopener.commands.CommandHelper.argumentsInvalid;
 public class Placeholder implements DoorCondition {
 
     private final String evaluator;
+    private PlaceholderExpression expression;
 
     public Placeholder(String evaluator) {
         this.evaluator = evaluator;
@@ -115,8 +116,10 @@ public class Placeholder implements DoorCondition {
     @Override
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
         if (BigDoorsOpener.isPlaceholderEnabled()) {
-            PlaceholderAPI.setPlaceholders(player, evaluator);
-            return BigDoorsOpener.JS().eval(PlaceholderAPI.setPlaceholders(player, evaluator), null);
+            if (expression == null) {
+                expression = PlaceholderExpression.parse(evaluator);
+            }
+            return expression.eval(player, BigDoorsOpener.placeholderResolver(), BigDoorsOpener.JS());
         }
         BigDoorsOpener.logger().warning("A placeholder condition on door " + door.doorUID() + " was called but PlaceholderAPI is not active.");
         return null;
@@ -6,13 +6,13 @@
 
 package de.eldoria.bigdoorsopener.conditions.standalone;
 
-import com.google.common.cache.Cache;
 import de.eldoria.bigdoorsopener.conditions.DoorCondition;
 import de.eldoria.bigdoorsopener.conditions.DoorState;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
+import de.eldoria.bigdoorsopener.core.scheduler.PlayerIndex;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.util.C;
 import de.eldoria.eldoutilities.localization.ILocalizer;
@@ -34,7 +34,6 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.concurrent.ExecutionException;
 
 import static de.eldoria.bigdoorsopener.commands.CommandHelper.argumentsInvalid;
 
@@ -43,9 +42,10 @@ import static de.eldoria.bigdoorsopener.commands.CommandHelper.argumentsInvalid;
  */
 @SerializableAs("timeCondition")
 public class Time implements DoorCondition {
-    // We use a static cache here for all time conditions.
-    // The time condition is not very likely to change out of a sudden so the refresh cycle does not need to be precisely correct.
-    private static final Cache<Long, Optional<Boolean>> STATE_CACHE = C.getShortExpiringCache();
+    /**
+     * Ticks of a minecraft day.
+     */
+    public static final int DAY_TICKS = 24000;
     /**
      * The ticks from when to door should be closed
      */
@@ -56,6 +56,10 @@ public class Time implements DoorCondition {
     private final int closeTick;
     private final boolean forceState;
     private DoorState state = null;
+    // The state is only computed once per server tick. All players of a evaluation get the same result.
+    // The world time can not be used as key, because it does not advance without daylight cycle.
+    private long evaluatedTick = -1;
+    private Boolean evaluatedState = null;
 
     /**
      * Creates a time key which opens and closes the door based on time. Use the forcestate to define if the door should
@@ -152,13 +156,25 @@ public class Time implements DoorCondition {
                 .build();
     }
 
+    /**
+     * The time condition remembers the last state. Without forced state a state change is only reported once.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
     @Override
     public Boolean isOpen(@Nullable Player player, World world, ConditionalDoor door, boolean currentState) {
-        try {
-            return STATE_CACHE.get(door.doorUID(), () -> Optional.ofNullable(shouldBeOpen(world.getFullTime()))).orElse(null);
-        } catch (ExecutionException e) {
-            return null;
+        PlayerIndex playerIndex = BigDoorsOpener.playerIndex();
+        if (playerIndex == null) return shouldBeOpen(world.getFullTime());
+        if (playerIndex.tick() != evaluatedTick) {
+            evaluatedTick = playerIndex.tick();
+            evaluatedState = shouldBeOpen(world.getFullTime());
         }
+        return evaluatedState;
     }
 
     @Override
@@ -200,6 +216,34 @@ public class Time implements DoorCondition {
         return new Time(openTick, closeTick, forceState);
     }
 
+    /**
+     * Get the full time when the state of a time condition changes the next time because of a tick of the day.
+     * <p>
+     * At the open or close tick itself the condition still reports the previous state. The state changes one tick
+     * later.
+     *
+     * @param fullTime current full time
+     * @param dayTick  open or close tick of the day between 0 and 24000
+     * @return the first full time after the current full time where the state changed because of this tick
+     */
+    public static long nextTransition(long fullTime, int dayTick) {
+        long changed = (Math.min(dayTick, DAY_TICKS - 1) + 1) % DAY_TICKS;
+        long offset = Math.floorMod(changed - fullTime, (long) DAY_TICKS);
+        return fullTime + (offset == 0 ? DAY_TICKS : offset);
+    }
+
+    public int openTick() {
+        return openTick;
+    }
+
+    public int closeTick() {
+        return closeTick;
+    }
+
+    public boolean forceState() {
+        return forceState;
+    }
+
     public Boolean shouldBeOpen(long fulltime) {
         long openInTicks = getDiff(fulltime, openTick);
         long closedInTicks = getDiff(fulltime, closeTick);
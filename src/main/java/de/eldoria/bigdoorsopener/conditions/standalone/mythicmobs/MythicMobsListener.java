@@ -9,6 +9,7 @@ package de.eldoria.bigdoorsopener.conditions.standalone.mythicmobs;
 import de.eldoria.bigdoorsopener.conditions.DoorCondition;
 import de.eldoria.bigdoorsopener.config.Config;
 import de.eldoria.bigdoorsopener.core.adapter.BigDoorsAdapter;
+import de.eldoria.bigdoorsopener.core.scheduler.DoorChecker;
 import io.lumine.mythic.bukkit.events.MythicMobDeathEvent;
 import nl.pim16aap2.bigDoors.BigDoors;
 import org.bukkit.event.EventHandler;
@@ -19,10 +20,12 @@ import java.util.List;
 public class MythicMobsListener extends BigDoorsAdapter implements Listener {
 
     private final Config config;
+    private final DoorChecker doorChecker;
 
-    public MythicMobsListener(BigDoors bigDoors, Config config) {
+    public MythicMobsListener(BigDoors bigDoors, Config config, DoorChecker doorChecker) {
         super(bigDoors);
         this.config = config;
+        this.doorChecker = doorChecker;
     }
 
     @EventHandler
@@ -31,6 +34,7 @@ public class MythicMobsListener extends BigDoorsAdapter implements Listener {
             List<DoorCondition> mythicMobs = d.conditionBag().getConditions("mythicMob");
             if (mythicMobs.isEmpty()) return;
             mythicMobs.forEach(m -> ((MythicMob) m).killed(event, isAvailableToOpen(d)));
+            doorChecker.scheduleEvaluation(d);
         });
     }
 }
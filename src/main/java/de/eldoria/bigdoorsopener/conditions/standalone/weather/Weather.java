@@ -124,6 +124,15 @@ public class Weather implements DoorCondition {
         }
     }
 
+    /**
+     * Invalidates the cached state of the weather conditions of a door.
+     *
+     * @param door door to invalidate
+     */
+    public static void invalidate(ConditionalDoor door) {
+        STATE_CACHE.invalidate(door);
+    }
+
     private Boolean isRaining(ConditionalDoor door) {
         Vector pos = door.position();
 
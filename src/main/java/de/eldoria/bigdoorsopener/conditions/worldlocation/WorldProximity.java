@@ -10,6 +10,7 @@ import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
+import de.eldoria.bigdoorsopener.core.scheduler.PlayerPositions;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.util.C;
 import de.eldoria.eldoutilities.functions.TriFunction;
@@ -139,15 +140,19 @@ public class WorldProximity implements WorldLocation {
 
     @Override
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
-        for (Player worldPlayer : world.getPlayers()) {
-            Vector vector = worldPlayer.getLocation().toVector();
-            if (proximityForm.check.apply(door.position(),
-                    new Vector(vector.getBlockX(), vector.getBlockY(), vector.getBlockZ()),
-                    dimensions)) {
-                return true;
-            }
-        }
-        return false;
+        Vector position = door.position();
+        double x = position.getX();
+        double y = position.getY();
+        double z = position.getZ();
+        PlayerPositions positions = BigDoorsOpener.playerIndex().positions(world);
+        return positions.anyInside(
+                (int) Math.ceil(x - dimensions.getX()),
+                (int) Math.ceil(y - dimensions.getY()),
+                (int) Math.ceil(z - dimensions.getZ()),
+                (int) Math.floor(x + dimensions.getX()),
+                (int) Math.floor(y + dimensions.getY()),
+                (int) Math.floor(z + dimensions.getZ()),
+                (blockX, blockY, blockZ) -> proximityForm.contains(blockX - x, blockY - y, blockZ - z, dimensions));
     }
 
     @Override
@@ -188,21 +193,21 @@ public class WorldProximity implements WorldLocation {
 
     public enum ProximityForm {
         CUBOID("conditionDesc.proximityForm.cuboid",
-                (point, target, dimensions) -> {
-                    if (Math.abs(point.getX() - target.getX()) > dimensions.getX()) return false;
-                    if (Math.abs(point.getY() - target.getY()) > dimensions.getY()) return false;
-                    return !(Math.abs(point.getZ() - target.getZ()) > dimensions.getZ());
+                (x, y, z, dimensions) -> {
+                    if (Math.abs(x) > dimensions.getX()) return false;
+                    if (Math.abs(y) > dimensions.getY()) return false;
+                    return !(Math.abs(z) > dimensions.getZ());
                 }),
         ELLIPSOID("conditionDesc.proximityForm.ellipsoid",
-                (point, target, dimensions) ->
-                        Math.pow((target.getX() - point.getX()) / dimensions.getX(), 2)
-                                + Math.pow((target.getY() - point.getY()) / dimensions.getY(), 2)
-                                + Math.pow((target.getZ() - point.getZ()) / dimensions.getZ(), 2) <= 1),
+                (x, y, z, dimensions) ->
+                        Math.pow(x / dimensions.getX(), 2)
+                                + Math.pow(y / dimensions.getY(), 2)
+                                + Math.pow(z / dimensions.getZ(), 2) <= 1),
         CYLINDER("conditionDesc.proximityForm.cylinder",
-                (point, target, dimensions) -> {
-                    if (Math.abs(point.getY() - target.getY()) > dimensions.getY()) return false;
-                    return Math.pow(target.getX() - point.getX(), 2) / Math.pow(dimensions.getX(), 2)
-                            + Math.pow(target.getZ() - point.getZ(), 2) / Math.pow(dimensions.getZ(), 2) <= 1;
+                (x, y, z, dimensions) -> {
+                    if (Math.abs(y) > dimensions.getY()) return false;
+                    return Math.pow(x, 2) / Math.pow(dimensions.getX(), 2)
+                            + Math.pow(z, 2) / Math.pow(dimensions.getZ(), 2) <= 1;
                 });
 
         public final String localKey;
@@ -210,10 +215,31 @@ public class WorldProximity implements WorldLocation {
          * point, target, dimension
          */
         public TriFunction<Vector, Vector, Vector, Boolean> check;
+        private final Offset offset;
 
-        ProximityForm(String localKey, TriFunction<Vector, Vector, Vector, Boolean> check) {
+        ProximityForm(String localKey, Offset offset) {
             this.localKey = localKey;
-            this.check = check;
+            this.offset = offset;
+            this.check = (point, target, dimensions) -> offset.contains(target.getX() - point.getX(),
+                    target.getY() - point.getY(), target.getZ() - point.getZ(), dimensions);
+        }
+
+        /**
+         * Checks if a offset from the center is inside the form.
+         *
+         * @param x          x offset from the center
+         * @param y          y offset from the center
+         * @param z          z offset from the center
+         * @param dimensions dimensions of the form
+         * @return true if the offset is inside the form
+         */
+        public boolean contains(double x, double y, double z, Vector dimensions) {
+            return offset.contains(x, y, z, dimensions);
+        }
+
+        @FunctionalInterface
+        private interface Offset {
+            boolean contains(double x, double y, double z, Vector dimensions);
         }
     }
 }
@@ -6,12 +6,13 @@
 
 package de.eldoria.bigdoorsopener.conditions.worldlocation;
 
-import com.google.common.cache.Cache;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import de.eldoria.bigdoorsopener.core.adapter.RegionMembership;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
@@ -24,7 +25,6 @@ import de.eldoria.eldoutilities.serialization.TypeResolvingMap;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.configuration.serialization.SerializableAs;
 import org.bukkit.entity.Player;
@@ -46,8 +46,6 @@ public class WorldRegion implements WorldLocation {
     private final String worldName;
     private final String regionId;
 
-    private final Cache<Location, Boolean> cache = C.getExpiringCache();
-
     public WorldRegion(ProtectedRegion region, World world) {
         this.region = region;
         this.world = world;
@@ -129,12 +127,12 @@ public class WorldRegion implements WorldLocation {
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
         if (world != this.world) return false;
         if (region == null) return null;
-        for (Player worldPlayer : world.getPlayers()) {
-            if (region.contains(BukkitAdapter.asBlockVector(worldPlayer.getLocation()))) {
-                return true;
-            }
-        }
-        return false;
+        RegionMembership membership = BigDoorsOpener.regionMembership();
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        return BigDoorsOpener.playerIndex().positions(world).anyInside(
+                min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ(),
+                (x, y, z) -> membership.contains(world, x, y, z, region));
     }
 
     @Override
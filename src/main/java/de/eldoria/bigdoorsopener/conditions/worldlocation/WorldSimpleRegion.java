@@ -6,7 +6,6 @@
 
 package de.eldoria.bigdoorsopener.conditions.worldlocation;
 
-import com.google.common.cache.Cache;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
@@ -22,20 +21,17 @@ import de.eldoria.eldoutilities.serialization.SerializationUtil;
 import de.eldoria.eldoutilities.serialization.TypeResolvingMap;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.configuration.serialization.SerializableAs;
 import org.bukkit.entity.Player;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.util.BlockVector;
-import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 @SerializableAs("worldSimpleRegionCondition")
 public class WorldSimpleRegion implements WorldLocation {
@@ -43,8 +39,6 @@ public class WorldSimpleRegion implements WorldLocation {
     private final BlockVector maximum;
     private final String world;
 
-    private final Cache<Location, Boolean> cache = C.getExpiringCache(10, TimeUnit.SECONDS);
-
     public WorldSimpleRegion(BlockVector first, BlockVector second, String world) {
         this.world = world;
         this.minimum = BlockVector.getMinimum(first, second).toBlockVector();
@@ -95,15 +89,9 @@ public class WorldSimpleRegion implements WorldLocation {
 
     @Override
     public Boolean isOpen(Player player, World world, ConditionalDoor door, boolean currentState) {
-        for (Player worldPlayer : world.getPlayers()) {
-            Vector pos = player.getLocation().toVector();
-            if (pos.getX() > maximum.getX() || pos.getX() < minimum.getX()) continue;
-            if (pos.getY() > maximum.getY() || pos.getY() < minimum.getY()) continue;
-            if (!(pos.getZ() > maximum.getZ()) && !(pos.getZ() < minimum.getZ())) {
-                return true;
-            }
-        }
-        return false;
+        return BigDoorsOpener.playerIndex().positions(world).anyInside(
+                minimum.getBlockX(), minimum.getBlockY(), minimum.getBlockZ(),
+                maximum.getBlockX(), maximum.getBlockY(), maximum.getBlockZ());
     }
 
     @Override
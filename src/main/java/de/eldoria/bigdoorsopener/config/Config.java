@@ -24,7 +24,9 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -32,29 +34,46 @@ import java.util.logging.Logger;
 
 public class Config {
     private final Plugin plugin;
+    private final ConfigWriter writer;
+    private DoorRepository repository;
     private final Map<Long, ConditionalDoor> doors = new HashMap<>();
     private boolean enableMetrics;
     private String language;
     private int refreshRate;
+    private int idleRefreshRate;
+    private int nearRefreshRate;
+    private double nearDistance;
+    private double evaluationTimeBudget;
+    private double lagThreshold;
+    private int maxAnimatingDoors;
+    private int maxAnimatingDoorsPerChunk;
     private boolean checkUpdates;
     private int jsCacheSize;
     private Vector playerCheckRadius;
+    private long placeholderCacheDuration;
+    private final Map<String, Long> placeholderCacheDurations = new HashMap<>();
+    private final Set<String> asyncPlaceholderExpansions = new HashSet<>();
 
     public Config(Plugin plugin) {
         this.plugin = plugin;
+        writer = new ConfigWriter(plugin);
         loadConfig();
     }
 
-    private static void setIfAbsent(FileConfiguration config, String path, Object value) {
+    private static boolean setIfAbsent(FileConfiguration config, String path, Object value) {
         if (!config.isSet(path)) {
             config.set(path, value);
+            return true;
         }
+        return false;
     }
 
-    private static void setIfAbsent(ConfigurationSection section, String path, Object value) {
+    private static boolean setIfAbsent(ConfigurationSection section, String path, Object value) {
         if (!section.isSet(path)) {
             section.set(path, value);
+            return true;
         }
+        return false;
     }
 
     private static ConfigurationSection createSectionIfAbsent(FileConfiguration config, String path) {
@@ -153,45 +172,95 @@ public class Config {
 
     /**
      * Forces the current actual config values. Must be always executed after {@link #updateConfig()}
+     *
+     * @return true if missing keys were added
      */
-    private void forceConfigConsistency() {
+    private boolean forceConfigConsistency() {
         plugin.saveDefaultConfig();
         plugin.reloadConfig();
 
         FileConfiguration config = plugin.getConfig();
-
-        setIfAbsent(config, "doors", new ArrayList<ConditionalDoor>());
-
-        setIfAbsent(config, "refreshRate", 20);
-        setIfAbsent(config, "enableMetrics", true);
-        setIfAbsent(config, "language", "en_US");
-        setIfAbsent(config, "checkUpdates", true);
-        setIfAbsent(config, "jsCacheSize", 400);
-        setIfAbsent(config, "playerCheckRadius", 200);
+        boolean changed = false;
+
+        changed |= setIfAbsent(config, "doors", new ArrayList<ConditionalDoor>());
+        changed |= setIfAbsent(config, "doorStorage", "config");
+
+        changed |= setIfAbsent(config, "refreshRate", 20);
+        changed |= setIfAbsent(config, "idleRefreshRate", 600);
+        changed |= setIfAbsent(config, "nearRefreshRate", 2);
+        changed |= setIfAbsent(config, "nearDistance", 5.0);
+        changed |= setIfAbsent(config, "evaluationTimeBudget", 0.0);
+        changed |= setIfAbsent(config, "lagThreshold", 50.0);
+        changed |= setIfAbsent(config, "maxAnimatingDoors", 30);
+        changed |= setIfAbsent(config, "maxAnimatingDoorsPerChunk", 4);
+        changed |= setIfAbsent(config, "enableMetrics", true);
+        changed |= setIfAbsent(config, "language", "en_US");
+        changed |= setIfAbsent(config, "checkUpdates", true);
+        changed |= setIfAbsent(config, "jsCacheSize", 400);
+        changed |= setIfAbsent(config, "playerCheckRadius", 200);
+
+        ConfigurationSection placeholderCache = createSectionIfAbsent(config, "placeholderCache");
+        changed |= setIfAbsent(placeholderCache, "duration", 1000);
+        changed |= setIfAbsent(placeholderCache, "durations", new HashMap<String, Object>());
+        changed |= setIfAbsent(placeholderCache, "asyncExpansions", new ArrayList<String>());
 
 
         // never set the version here.
+        return changed;
     }
 
     /**
      * Discards any internal changes to the config and loads it. Ensures config consistency.
+     * <p>
+     * Pending changes of the door files are written before the doors are read again. A pending write of the config is
+     * discarded, so changes made to the file by hand are not overwritten. Doors of the config which were changed but
+     * not written yet are kept.
      */
-    @SuppressWarnings("unchecked")
     public void reloadConfig() {
-        forceConfigConsistency();
+        List<ConditionalDoor> pendingDoors = null;
+        if (repository instanceof ConfigDoorRepository && ((ConfigDoorRepository) repository).hasPendingWrite()) {
+            pendingDoors = new ArrayList<>(doors.values());
+        }
+        if (repository != null) {
+            repository.shutdown();
+        }
+        writer.discard();
+        boolean changed = forceConfigConsistency();
         FileConfiguration config = plugin.getConfig();
 
-        List<ConditionalDoor> configDoors = (List<ConditionalDoor>) config.getList("doors");
-        if (configDoors != null) {
-            doors.clear();
-            for (ConditionalDoor door : configDoors) {
-                doors.put(door.doorUID(), door);
-            }
+        if (pendingDoors != null) {
+            // the doors in the file are outdated. Use the doors in memory and write them again.
+            config.set("doors", pendingDoors);
+            changed = true;
+        }
+
+        if ("files".equalsIgnoreCase(config.getString("doorStorage", "config"))) {
+            repository = new FileDoorRepository(plugin);
         } else {
+            repository = new ConfigDoorRepository(plugin, writer, doors::values);
+        }
+
+        doors.clear();
+        doors.putAll(repository.load());
+
+        if (repository instanceof FileDoorRepository) {
+            changed |= moveConfigDoors(config);
+        } else {
+            moveFileDoors();
+        }
+
+        if (doors.isEmpty()) {
             BigDoorsOpener.logger().info("No doors defined.");
         }
 
         refreshRate = config.getInt("refreshRate", 20);
+        idleRefreshRate = Math.max(config.getInt("idleRefreshRate", 600), refreshRate);
+        nearRefreshRate = Math.max(Math.min(config.getInt("nearRefreshRate", 2), refreshRate), 1);
+        nearDistance = Math.max(config.getDouble("nearDistance", 5), 0);
+        evaluationTimeBudget = Math.max(config.getDouble("evaluationTimeBudget", 0), 0);
+        lagThreshold = Math.max(config.getDouble("lagThreshold", 50), 1);
+        maxAnimatingDoors = Math.max(config.getInt("maxAnimatingDoors", 30), 0);
+        maxAnimatingDoorsPerChunk = Math.max(config.getInt("maxAnimatingDoorsPerChunk", 4), 0);
         enableMetrics = config.getBoolean("enableMetrics", true);
         language = config.getString("language", "en_US");
         checkUpdates = config.getBoolean("checkUpdates", true);
@@ -199,25 +268,115 @@ public class Config {
         int radius = config.getInt("playerCheckRadius", 200);
         playerCheckRadius = new Vector(radius, radius, radius);
 
+        ConfigurationSection placeholderCache = config.getConfigurationSection("placeholderCache");
+        placeholderCacheDuration = Math.max(placeholderCache.getLong("duration", 1000), 0);
+        placeholderCacheDurations.clear();
+        ConfigurationSection durations = placeholderCache.getConfigurationSection("durations");
+        if (durations != null) {
+            for (String key : durations.getKeys(false)) {
+                placeholderCacheDurations.put(key.toLowerCase(Locale.ROOT), Math.max(durations.getLong(key), 0));
+            }
+        }
+        asyncPlaceholderExpansions.clear();
+        for (String expansion : placeholderCache.getStringList("asyncExpansions")) {
+            asyncPlaceholderExpansions.add(expansion.toLowerCase(Locale.ROOT));
+        }
+
         // ensure that js cache size is not too small
         if (jsCacheSize < 200) {
             BigDoorsOpener.logger().warning("Js cache is small. This may cause performance issues. We recommend at least a size of 200");
             jsCacheSize = Math.max(jsCacheSize, 10);
         }
 
-        safeConfig();
+        // only write the config if keys were added or doors were moved.
+        if (changed) {
+            writer.markDirty();
+        }
 
         BigDoorsOpener.logger().info("Config loaded!");
     }
 
     /**
-     * Save the currently defined doors with current state to config.
+     * Moves doors which are still stored in the config.yml into the door repository.
+     *
+     * @param config config which may contain doors
+     * @return true if the config was changed
+     */
+    private boolean moveConfigDoors(FileConfiguration config) {
+        List<?> configDoors = config.getList("doors");
+        if (configDoors == null || configDoors.isEmpty()) return false;
+
+        int count = 0;
+        for (Object entry : configDoors) {
+            if (!(entry instanceof ConditionalDoor)) continue;
+            ConditionalDoor door = (ConditionalDoor) entry;
+            if (doors.putIfAbsent(door.doorUID(), door) == null) {
+                repository.save(door);
+                count++;
+            }
+        }
+        config.set("doors", new ArrayList<ConditionalDoor>());
+        BigDoorsOpener.logger().info("Moved " + count + " doors from config to door files.");
+        return true;
+    }
+
+    /**
+     * Moves doors which are still stored in door files into the config.yml. This happens when the door storage is
+     * switched back from files to config.
+     * <p>
+     * The config is written before the door files are deleted.
+     */
+    private void moveFileDoors() {
+        FileDoorRepository files = new FileDoorRepository(plugin);
+        Map<Long, ConditionalDoor> fileDoors = files.load();
+        if (fileDoors.isEmpty()) {
+            files.shutdown();
+            return;
+        }
+
+        int count = 0;
+        for (ConditionalDoor door : fileDoors.values()) {
+            if (doors.putIfAbsent(door.doorUID(), door) == null) {
+                count++;
+            }
+        }
+        repository.saveAll(doors.values());
+        writer.flush();
+
+        for (long doorUID : fileDoors.keySet()) {
+            files.delete(doorUID);
+        }
+        files.shutdown();
+        BigDoorsOpener.logger().info("Moved " + count + " doors from door files to config.");
+    }
+
+    /**
+     * Save the currently defined doors with current state to the door storage and the config.
+     * <p>
+     * The config is written asynchronously after a short delay. Multiple calls within this delay result in a single
+     * write.
      */
     public void safeConfig() {
-        FileConfiguration config = plugin.getConfig();
-        config.set("doors", new ArrayList<>(doors.values()));
-        plugin.saveConfig();
-        BigDoorsOpener.logger().fine("Config saved.");
+        repository.saveAll(doors.values());
+        writer.markDirty();
+    }
+
+    /**
+     * Save a single door. Depending on the door storage only this door is written.
+     *
+     * @param door door to save
+     */
+    public void saveDoor(ConditionalDoor door) {
+        if (door == null || doors.get(door.doorUID()) != door) return;
+        repository.save(door);
+    }
+
+    /**
+     * Writes all pending changes to disk and stops the config writer. Should be called on disable.
+     */
+    public void shutdown() {
+        repository.shutdown();
+        writer.shutdown();
     }
 
     public ConditionalDoor getDoor(Long key) {
@@ -244,7 +403,9 @@ public class Config {
 
     public boolean removeDoor(Long key) {
         ConditionalDoor remove = doors.remove(key);
-        safeConfig();
+        if (remove != null) {
+            repository.delete(key);
+        }
         Bukkit.getPluginManager().callEvent(new DoorUnregisteredEvent(remove));
         return remove != null;
     }
@@ -274,6 +435,64 @@ public class Config {
         return refreshRate;
     }
 
+    public int idleRefreshRate() {
+        return idleRefreshRate;
+    }
+
+    /**
+     * Refresh rate of doors with a player close to the area of their conditions.
+     *
+     * @return refresh rate in ticks
+     */
+    public int nearRefreshRate() {
+        return nearRefreshRate;
+    }
+
+    /**
+     * Distance to the area of the conditions of a door in which a player is considered to be near the door.
+     *
+     * @return distance in blocks
+     */
+    public double nearDistance() {
+        return nearDistance;
+    }
+
+    /**
+     * Time in milliseconds which may be used per tick to poll doors with players nearby.
+     *
+     * @return time budget in milliseconds or 0 if the budget is disabled
+     */
+    public double evaluationTimeBudget() {
+        return evaluationTimeBudget;
+    }
+
+    /**
+     * Milliseconds per tick above which the time budget is reduced.
+     *
+     * @return threshold in milliseconds
+     */
+    public double lagThreshold() {
+        return lagThreshold;
+    }
+
+    /**
+     * Max amount of doors which are animated at the same time.
+     *
+     * @return max amount of doors or 0 if unlimited
+     */
+    public int maxAnimatingDoors() {
+        return maxAnimatingDoors;
+    }
+
+    /**
+     * Max amount of doors in the same chunk which are animated at the same time.
+     *
+     * @return max amount of doors or 0 if unlimited
+     */
+    public int maxAnimatingDoorsPerChunk() {
+        return maxAnimatingDoorsPerChunk;
+    }
+
     public boolean isCheckUpdates() {
         return checkUpdates;
     }
@@ -285,4 +504,35 @@ public class Config {
     public Vector playerCheckRadius() {
         return playerCheckRadius;
     }
+
+    /**
+     * Milliseconds a resolved placeholder value is reused. A duration defined for the placeholder is preferred over a
+     * duration defined for its expansion.
+     *
+     * @param placeholder placeholder without percent signs
+     * @return duration in milliseconds
+     */
+    public long placeholderCacheDuration(String placeholder) {
+        String key = placeholder.toLowerCase(Locale.ROOT);
+        Long duration = placeholderCacheDurations.get(key);
+        if (duration == null) {
+            duration = placeholderCacheDurations.get(expansion(key));
+        }
+        return duration == null ? placeholderCacheDuration : duration;
+    }
+
+    /**
+     * Checks if the expansion of a placeholder may be resolved outside of the main thread.
+     *
+     * @param placeholder placeholder without percent signs
+     * @return true if the placeholder can be resolved asynchronously
+     */
+    public boolean isAsyncPlaceholder(String placeholder) {
+        return asyncPlaceholderExpansions.contains(expansion(placeholder.toLowerCase(Locale.ROOT)));
+    }
+
+    private static String expansion(String placeholder) {
+        int index = placeholder.indexOf('_');
+        return index < 0 ? placeholder : placeholder.substring(0, index);
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.config;
+
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Stores all doors as a list in the config.yml. Every change rewrites the whole list.
+ */
+public class ConfigDoorRepository implements DoorRepository {
+    private final Plugin plugin;
+    private final ConfigWriter writer;
+    private final Supplier<Collection<ConditionalDoor>> doors;
+    /**
+     * Generation of the writer when the doors were changed the last time.
+     */
+    private long changedGeneration = -1;
+
+    /**
+     * Creates a new config door repository
+     *
+     * @param plugin plugin which owns the config
+     * @param writer writer of the config
+     * @param doors  supplier for all currently registered doors
+     */
+    public ConfigDoorRepository(Plugin plugin, ConfigWriter writer, Supplier<Collection<ConditionalDoor>> doors) {
+        this.plugin = plugin;
+        this.writer = writer;
+        this.doors = doors;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<Long, ConditionalDoor> load() {
+        Map<Long, ConditionalDoor> result = new HashMap<>();
+        List<ConditionalDoor> configDoors = (List<ConditionalDoor>) plugin.getConfig().getList("doors");
+        if (configDoors == null) return result;
+        for (ConditionalDoor door : configDoors) {
+            result.put(door.doorUID(), door);
+        }
+        return result;
+    }
+
+    @Override
+    public void save(ConditionalDoor door) {
+        write();
+    }
+
+    @Override
+    public void saveAll(Collection<ConditionalDoor> doors) {
+        write();
+    }
+
+    @Override
+    public void delete(long doorUID) {
+        write();
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    /**
+     * Checks if changed doors are not yet part of a write of the config.
+     *
+     * @return true if a write of the doors is pending
+     */
+    public boolean hasPendingWrite() {
+        return writer.isPending() && changedGeneration == writer.generation();
+    }
+
+    private void write() {
+        plugin.getConfig().set("doors", new ArrayList<>(doors.get()));
+        changedGeneration = writer.generation();
+        writer.markDirty();
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.config;
+
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+/**
+ * Writes the plugin config to disk without blocking the main thread.
+ * <p>
+ * Changes only mark the config as dirty. Changes within a short window are coalesced into a single write. The config is
+ * copied into a snapshot on the main thread, which is serialized and written by a worker thread. The file is written
+ * to a temp file first and moved to the target afterwards.
+ */
+public class ConfigWriter {
+    /**
+     * Ticks to wait after the first change before the config is written.
+     */
+    private static final long COALESCE_TICKS = 40;
+
+    private final Plugin plugin;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BigDoorsOpener Config Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BukkitTask task;
+    /**
+     * Amount of snapshots taken from the config.
+     */
+    private long generation;
+
+    public ConfigWriter(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Marks the config as dirty. The config will be written after a short delay.
+     */
+    public void markDirty() {
+        if (task != null) return;
+        task = Bukkit.getScheduler().runTaskLater(plugin, this::write, COALESCE_TICKS);
+    }
+
+    /**
+     * Checks if a write is scheduled.
+     *
+     * @return true if the config was changed since the last snapshot
+     */
+    public boolean isPending() {
+        return task != null;
+    }
+
+    /**
+     * Get the amount of snapshots taken from the config. Changes made before the generation changed are part of a
+     * snapshot.
+     *
+     * @return current generation
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Writes pending changes immediately and waits until all writes are done. Must be called from the main thread.
+     */
+    public void flush() {
+        if (task == null) {
+            await();
+            return;
+        }
+        task.cancel();
+        task = null;
+        YamlConfiguration snapshot = snapshot(plugin.getConfig());
+        generation++;
+        try {
+            executor.submit(() -> save(snapshot)).get();
+        } catch (RejectedExecutionException e) {
+            save(snapshot);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            BigDoorsOpener.logger().log(Level.WARNING, "Could not save config.", e);
+        }
+    }
+
+    /**
+     * Drops a pending write and waits until all running writes are done. Must be called from the main thread.
+     * <p>
+     * Used before the config is read from disk again. The changes in memory are discarded by the reload anyway.
+     */
+    public void discard() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        await();
+    }
+
+    /**
+     * Writes pending changes and stops the writer.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+    }
+
+    private void write() {
+        task = null;
+        YamlConfiguration snapshot = snapshot(plugin.getConfig());
+        generation++;
+        try {
+            executor.execute(() -> save(snapshot));
+        } catch (RejectedExecutionException e) {
+            save(snapshot);
+        }
+    }
+
+    private void await() {
+        try {
+            executor.submit(() -> {
+            }).get();
+        } catch (RejectedExecutionException | ExecutionException e) {
+            // nothing to wait for
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void save(YamlConfiguration snapshot) {
+        Path target = plugin.getDataFolder().toPath().resolve("config.yml");
+        try {
+            writeAtomic(target, snapshot.saveToString());
+            BigDoorsOpener.logger().fine("Config saved.");
+        } catch (IOException e) {
+            BigDoorsOpener.logger().log(Level.SEVERE, "Could not save config to " + target, e);
+        }
+    }
+
+    /**
+     * Writes a file to a temp file first and moves it to the target afterwards.
+     *
+     * @param target  file to write
+     * @param content content of the file
+     * @throws IOException if the file could not be written
+     */
+    static void writeAtomic(Path target, String content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.createDirectories(target.getParent());
+        Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Creates a copy of the config which does not share any mutable objects with the plugin.
+     * <p>
+     * Serializable objects are serialized into maps like the yaml representer would do it.
+     *
+     * @param config config to copy
+     * @return copy of the config
+     */
+    private static YamlConfiguration snapshot(FileConfiguration config) {
+        YamlConfiguration snapshot = new YamlConfiguration();
+        snapshot.options().header(config.options().header());
+        for (String key : config.getKeys(false)) {
+            snapshot.set(key, copy(config.get(key)));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Creates a copy of a config value which does not share any mutable objects with the original value.
+     *
+     * @param value value to copy
+     * @return copy of the value
+     */
+    static Object copy(Object value) {
+        if (value instanceof ConfigurationSerializable) {
+            ConfigurationSerializable serializable = (ConfigurationSerializable) value;
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, ConfigurationSerialization.getAlias(serializable.getClass()));
+            serializable.serialize().forEach((k, v) -> map.put(k, copy(v)));
+            return map;
+        }
+        if (value instanceof ConfigurationSection) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            ((ConfigurationSection) value).getValues(false).forEach((k, v) -> map.put(k, copy(v)));
+            return map;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((k, v) -> map.put(k, copy(v)));
+            return map;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            ArrayList<Object> list = new ArrayList<>(collection.size());
+            collection.forEach(v -> list.add(copy(v)));
+            return list;
+        }
+        return value;
+    }
+}
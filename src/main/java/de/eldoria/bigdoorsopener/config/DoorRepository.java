@@ -0,0 +1,52 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.config;
+
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A storage for conditional doors.
+ * <p>
+ * All methods are called from the main thread. Implementations may write asynchronously.
+ */
+public interface DoorRepository {
+    /**
+     * Load all stored doors.
+     *
+     * @return map of doors by door uid
+     */
+    Map<Long, ConditionalDoor> load();
+
+    /**
+     * Save a single door.
+     *
+     * @param door door to save
+     */
+    void save(ConditionalDoor door);
+
+    /**
+     * Save multiple doors.
+     *
+     * @param doors doors to save
+     */
+    void saveAll(Collection<ConditionalDoor> doors);
+
+    /**
+     * Delete a door from the storage.
+     *
+     * @param doorUID uid of the door
+     */
+    void delete(long doorUID);
+
+    /**
+     * Write all pending changes and release the storage.
+     */
+    void shutdown();
+}
@@ -0,0 +1,159 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.config;
+
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+/**
+ * Stores every door in its own file inside the doors directory of the plugin.
+ * <p>
+ * Changes are collected and written after a short delay. Only changed doors are written. The doors are copied into a
+ * snapshot on the main thread and written by a worker thread.
+ */
+public class FileDoorRepository implements DoorRepository {
+    /**
+     * Ticks to wait after the first change before the doors are written.
+     */
+    private static final long COALESCE_TICKS = 40;
+
+    private final Plugin plugin;
+    private final Path directory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BigDoorsOpener Door Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Doors which should be written. A null value marks a door for deletion.
+     */
+    private final Map<Long, ConditionalDoor> pending = new LinkedHashMap<>();
+    private BukkitTask task;
+
+    public FileDoorRepository(Plugin plugin) {
+        this.plugin = plugin;
+        directory = plugin.getDataFolder().toPath().resolve("doors");
+    }
+
+    @Override
+    public Map<Long, ConditionalDoor> load() {
+        Map<Long, ConditionalDoor> result = new HashMap<>();
+        File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null) return result;
+        for (File file : files) {
+            Object door = YamlConfiguration.loadConfiguration(file).get("door");
+            if (door instanceof ConditionalDoor) {
+                ConditionalDoor conditionalDoor = (ConditionalDoor) door;
+                result.put(conditionalDoor.doorUID(), conditionalDoor);
+            } else {
+                BigDoorsOpener.logger().warning("File " + file.getName() + " does not contain a door. Skipping.");
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void save(ConditionalDoor door) {
+        if (door == null) return;
+        pending.put(door.doorUID(), door);
+        schedule();
+    }
+
+    @Override
+    public void saveAll(Collection<ConditionalDoor> doors) {
+        for (ConditionalDoor door : doors) {
+            pending.put(door.doorUID(), door);
+        }
+        schedule();
+    }
+
+    @Override
+    public void delete(long doorUID) {
+        pending.put(doorUID, null);
+        schedule();
+    }
+
+    @Override
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        Map<Long, Object> snapshot = snapshot();
+        try {
+            executor.submit(() -> write(snapshot)).get();
+        } catch (RejectedExecutionException e) {
+            write(snapshot);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            BigDoorsOpener.logger().log(Level.WARNING, "Could not save doors.", e);
+        }
+        executor.shutdown();
+    }
+
+    private void schedule() {
+        if (task != null) return;
+        task = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            task = null;
+            Map<Long, Object> snapshot = snapshot();
+            try {
+                executor.execute(() -> write(snapshot));
+            } catch (RejectedExecutionException e) {
+                write(snapshot);
+            }
+        }, COALESCE_TICKS);
+    }
+
+    /**
+     * Serializes the pending doors on the main thread.
+     *
+     * @return map of door uids with serialized doors or null for deleted doors
+     */
+    private Map<Long, Object> snapshot() {
+        Map<Long, Object> snapshot = new LinkedHashMap<>();
+        pending.forEach((uid, door) -> snapshot.put(uid, door == null ? null : ConfigWriter.copy(door)));
+        pending.clear();
+        return snapshot;
+    }
+
+    private void write(Map<Long, Object> snapshot) {
+        for (Map.Entry<Long, Object> entry : snapshot.entrySet()) {
+            Path file = directory.resolve(entry.getKey() + ".yml");
+            try {
+                if (entry.getValue() == null) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                YamlConfiguration yaml = new YamlConfiguration();
+                yaml.set("door", entry.getValue());
+                ConfigWriter.writeAtomic(file, yaml.saveToString());
+            } catch (IOException e) {
+                BigDoorsOpener.logger().log(Level.SEVERE, "Could not save door " + entry.getKey() + " to " + file, e);
+            }
+        }
+        BigDoorsOpener.logger().fine("Saved " + snapshot.size() + " doors.");
+    }
+}
@@ -9,6 +9,7 @@ package de.eldoria.bigdoorsopener.core;
 import com.sk89q.worldguard.WorldGuard;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 import de.eldoria.bigdoorsopener.commands.BDOCommand;
+import de.eldoria.bigdoorsopener.conditions.item.InventoryIndex;
 import de.eldoria.bigdoorsopener.conditions.item.ItemHolding;
 import de.eldoria.bigdoorsopener.conditions.item.ItemOwning;
 import de.eldoria.bigdoorsopener.conditions.item.interacting.ItemBlock;
@@ -30,12 +31,17 @@ import de.eldoria.bigdoorsopener.conditions.worldlocation.WorldRegion;
 import de.eldoria.bigdoorsopener.conditions.worldlocation.WorldSimpleRegion;
 import de.eldoria.bigdoorsopener.config.Config;
 import de.eldoria.bigdoorsopener.config.TimedDoor;
+import de.eldoria.bigdoorsopener.core.adapter.DoorMirror;
+import de.eldoria.bigdoorsopener.core.adapter.DoorOwnership;
+import de.eldoria.bigdoorsopener.core.adapter.PlaceholderResolver;
+import de.eldoria.bigdoorsopener.core.adapter.RegionMembership;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
 import de.eldoria.bigdoorsopener.core.exceptions.PluginInitFailed;
 import de.eldoria.bigdoorsopener.core.listener.DoorOpenedListener;
 import de.eldoria.bigdoorsopener.core.listener.ModificationListener;
 import de.eldoria.bigdoorsopener.core.listener.registration.RegisterInteraction;
 import de.eldoria.bigdoorsopener.core.scheduler.DoorChecker;
+import de.eldoria.bigdoorsopener.core.scheduler.PlayerIndex;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
 import de.eldoria.bigdoorsopener.door.conditioncollections.ConditionBag;
 import de.eldoria.bigdoorsopener.door.conditioncollections.ConditionChain;
@@ -74,6 +80,7 @@ public class BigDoorsOpener extends EldoPlugin {
     private static boolean placeholderEnabled = false;
     private static boolean mythicMobsEnabled;
     private static RegionContainer regionContainer = null;
+    private static RegionMembership regionMembership = null;
     private static BigDoorsOpener instance;
     private final BukkitScheduler scheduler = Bukkit.getScheduler();
     private Config config;
@@ -84,6 +91,11 @@ public class BigDoorsOpener extends EldoPlugin {
     private Commander commander;
     // scheduler
     private DoorChecker doorChecker;
+    private DoorMirror doorMirror;
+    private DoorOwnership doorOwnership;
+    private PlayerIndex playerIndex;
+    private InventoryIndex inventoryIndex;
+    private PlaceholderResolver placeholderResolver;
     // listener
     private WeatherListener weatherListener;
     private RegisterInteraction registerInteraction;
@@ -93,6 +105,10 @@ public class BigDoorsOpener extends EldoPlugin {
         return regionContainer;
     }
 
+    public static RegionMembership regionMembership() {
+        return regionMembership;
+    }
+
     @SuppressWarnings("StaticVariableUsedBeforeInitialization")
     public static CachingJSEngine JS() {
         return JS;
@@ -112,6 +128,26 @@ public class BigDoorsOpener extends EldoPlugin {
         return instance.doors;
     }
 
+    public static DoorMirror doorMirror() {
+        return instance.doorMirror;
+    }
+
+    public static DoorOwnership doorOwnership() {
+        return instance.doorOwnership;
+    }
+
+    public static PlayerIndex playerIndex() {
+        return instance == null ? null : instance.playerIndex;
+    }
+
+    public static InventoryIndex inventoryIndex() {
+        return instance == null ? null : instance.inventoryIndex;
+    }
+
+    public static PlaceholderResolver placeholderResolver() {
+        return instance.placeholderResolver;
+    }
+
     public static ILocalizer localizer() {
         return instance.localizer;
     }
@@ -149,6 +185,9 @@ public class BigDoorsOpener extends EldoPlugin {
         config = new Config(instance);
 
         JS = new CachingJSEngine(config.jsCacheSize());
+        if (placeholderEnabled) {
+            placeholderResolver = new PlaceholderResolver(this, config);
+        }
 
         // Check for updates
         if (config.isCheckUpdates()) {
@@ -168,9 +207,16 @@ public class BigDoorsOpener extends EldoPlugin {
 
         MessageSender.create(instance, "§6[BDO]");
 
+        // load the doors of big doors
+        doorMirror = new DoorMirror(this, doors);
+        doorMirror.start();
+        doorOwnership = new DoorOwnership(this, doors);
+        doorOwnership.start();
+
         // start door checker
-        doorChecker = DoorChecker.start(this, config, doors);
-        scheduler.scheduleSyncRepeatingTask(instance, doorChecker, 100, 1);
+        playerIndex = new PlayerIndex(config.playerCheckRadius());
+        inventoryIndex = new InventoryIndex();
+        doorChecker = DoorChecker.start(this, config, doors, playerIndex, doorMirror);
 
         registerListener();
 
@@ -178,13 +224,36 @@ public class BigDoorsOpener extends EldoPlugin {
                 new BDOCommand(instance, doors, config, doorChecker));
     }
 
+    @Override
+    public void onPluginDisable() {
+        if (doorMirror != null) {
+            doorMirror.shutdown();
+        }
+        if (doorOwnership != null) {
+            doorOwnership.shutdown();
+        }
+        if (doorChecker != null) {
+            doorChecker.shutdown();
+        }
+        if (config != null) {
+            config.shutdown();
+        }
+    }
+
     private void registerListener() {
         weatherListener = new WeatherListener();
         registerInteraction = new RegisterInteraction(MessageSender.getPluginMessageSender(this), config);
-        registerListener(new ModificationListener(config), doorChecker, new DoorOpenedListener(config),
-                new ItemConditionListener(doors, config), registerInteraction, weatherListener);
+        registerListener(new ModificationListener(config), doorMirror, doorOwnership, doorChecker, playerIndex,
+                inventoryIndex, new DoorOpenedListener(config), new ItemConditionListener(doors, config, doorChecker),
+                registerInteraction, weatherListener);
         if (mythicMobsEnabled) {
-            registerListener(new MythicMobsListener(doors, config));
+            registerListener(new MythicMobsListener(doors, config, doorChecker));
+        }
+        if (regionMembership != null) {
+            registerListener(regionMembership);
+        }
+        if (placeholderResolver != null) {
+            registerListener(placeholderResolver);
         }
     }
 
@@ -221,6 +290,7 @@ public class BigDoorsOpener extends EldoPlugin {
             if (worldGuard.startsWith("7")) {
                 regionContainer = WorldGuard.getInstance().getPlatform().getRegionContainer();
                 if (regionContainer != null) {
+                    regionMembership = new RegionMembership(regionContainer);
                     logger().info("Hooked into world guard successfully.");
                 } else {
                     logger().warning("Failed to hook into world guard.");
@@ -356,6 +426,9 @@ public class BigDoorsOpener extends EldoPlugin {
      */
     public void reload() {
         config.reloadConfig();
+        if (placeholderResolver != null) {
+            placeholderResolver.clear();
+        }
         doorChecker.reload();
     }
 }
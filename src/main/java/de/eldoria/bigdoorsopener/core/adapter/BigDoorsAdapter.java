@@ -85,7 +85,7 @@ public abstract class BigDoorsAdapter {
         }
 
         // Make sure that this door still exists on the doors plugin.
-        return getDoor(door.doorUID()) != null;
+        return getDoorData(door.doorUID()) != null;
     }
 
     /**
@@ -95,7 +95,7 @@ public abstract class BigDoorsAdapter {
      * @return true if the door is available
      */
     protected boolean isAvailableToOpen(ConditionalDoor door) {
-        return !isOpen(door) && !isBusy(door) && isDoorLoaded(getDoor(door.doorUID()));
+        return !isOpen(door) && !isBusy(door) && isDoorLoaded(getDoorData(door.doorUID()));
     }
 
     /**
@@ -108,6 +108,24 @@ public abstract class BigDoorsAdapter {
         return bigDoors.areChunksLoadedForDoor(door);
     }
 
+    /**
+     * Checks if the chunks of a door are loaded
+     *
+     * @param door door to check
+     * @return true if all chunks of the door are loaded
+     */
+    protected boolean isDoorLoaded(DoorData door) {
+        if (door == null || door.world() == null) return false;
+        World world = server.getWorld(door.world());
+        if (world == null) return false;
+        for (int x = door.minX() >> 4; x <= door.maxX() >> 4; x++) {
+            for (int z = door.minZ() >> 4; z <= door.maxZ() >> 4; z++) {
+                if (!world.isChunkLoaded(x, z)) return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Checks if a door is busy. A door is busy if its closing or opening at the moment.
      *
@@ -129,6 +147,18 @@ public abstract class BigDoorsAdapter {
         return commander.getDoor(player.getUniqueId(), uid);
     }
 
+    /**
+     * Get the metadata of the door with the specified id. The metadata is provided by the {@link DoorMirror} and does
+     * not hit the database of big doors.
+     *
+     * @param doorId uid of the door.
+     * @return metadata of the door if exists
+     */
+    @Nullable
+    protected DoorData getDoorData(long doorId) {
+        return BigDoorsOpener.doorMirror().get(doorId);
+    }
+
     /**
      * Get the door with the specified id.
      *
@@ -0,0 +1,103 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.adapter;
+
+import nl.pim16aap2.bigDoors.Door;
+import org.bukkit.Location;
+
+import java.util.UUID;
+
+/**
+ * A immutable copy of the metadata of a big doors door.
+ */
+public final class DoorData {
+    private final long doorUID;
+    private final String world;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+    private final boolean locked;
+    private final UUID owner;
+
+    private DoorData(long doorUID, String world, Location minimum, Location maximum, boolean locked, UUID owner) {
+        this.doorUID = doorUID;
+        this.world = world;
+        minX = minimum.getBlockX();
+        minY = minimum.getBlockY();
+        minZ = minimum.getBlockZ();
+        maxX = maximum.getBlockX();
+        maxY = maximum.getBlockY();
+        maxZ = maximum.getBlockZ();
+        this.locked = locked;
+        this.owner = owner;
+    }
+
+    /**
+     * Copy the metadata of a door.
+     *
+     * @param door door to copy
+     * @return copy of the door
+     */
+    public static DoorData of(Door door) {
+        String world = door.getWorld() == null ? null : door.getWorld().getName();
+        return new DoorData(door.getDoorUID(), world, door.getMinimum(), door.getMaximum(), door.isLocked(),
+                door.getPlayerUUID());
+    }
+
+    public long doorUID() {
+        return doorUID;
+    }
+
+    /**
+     * Get the name of the world of the door.
+     *
+     * @return name of the world or null if the world was not loaded when the door was copied
+     */
+    public String world() {
+        return world;
+    }
+
+    public int minX() {
+        return minX;
+    }
+
+    public int minY() {
+        return minY;
+    }
+
+    public int minZ() {
+        return minZ;
+    }
+
+    public int maxX() {
+        return maxX;
+    }
+
+    public int maxY() {
+        return maxY;
+    }
+
+    public int maxZ() {
+        return maxZ;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    /**
+     * Get the owner of the door.
+     *
+     * @return uuid of the owner
+     */
+    public UUID owner() {
+        return owner;
+    }
+}
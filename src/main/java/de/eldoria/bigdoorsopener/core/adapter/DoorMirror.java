@@ -0,0 +1,216 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.adapter;
+
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import nl.pim16aap2.bigDoors.BigDoors;
+import nl.pim16aap2.bigDoors.Commander;
+import nl.pim16aap2.bigDoors.Door;
+import nl.pim16aap2.bigDoors.events.DoorEventToggleEnd;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Keeps a copy of the metadata of all big doors doors in memory.
+ * <p>
+ * Every lookup of a door on the {@link Commander} hits the database of big doors. The mirror loads all doors once
+ * asynchronously and is updated when a door is toggled. Big doors does not notify about deleted or locked doors.
+ * Therefore all doors are reloaded asynchronously in a fixed interval. The loaded doors are applied on the main thread.
+ * Doors which were updated while the reload was running keep their newer data.
+ * <p>
+ * A door which is not known yet is loaded asynchronously when it is requested. Until the door is loaded it is reported
+ * as pending.
+ */
+public class DoorMirror implements Listener {
+    /**
+     * Ticks between two reloads of all doors.
+     */
+    private static final long RECONCILE_INTERVAL = 20 * 60;
+
+    private final Plugin plugin;
+    private final Commander commander;
+    private Map<Long, DoorData> doors = new HashMap<>();
+    /**
+     * The revision of the last update of a door. Entries older than the last reload are dropped.
+     */
+    private final Map<Long, Long> revisions = new HashMap<>();
+    /**
+     * Doors which are currently loaded.
+     */
+    private final Set<Long> pending = new HashSet<>();
+    /**
+     * Doors which were requested but do not exist on big doors.
+     */
+    private final Set<Long> missing = new HashSet<>();
+    private BukkitTask task;
+    private boolean loaded;
+    /**
+     * Counter which is increased by every update of the mirror.
+     */
+    private long revision;
+    /**
+     * Revision of the last applied reload.
+     */
+    private long reconciled;
+
+    public DoorMirror(Plugin plugin, BigDoors bigDoors) {
+        this.plugin = plugin;
+        this.commander = bigDoors.getCommander();
+    }
+
+    /**
+     * Starts the initial load and the periodic reload of all doors.
+     */
+    public void start() {
+        if (task != null) return;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::reconcile, 0, RECONCILE_INTERVAL);
+    }
+
+    /**
+     * Stops the periodic reload.
+     */
+    public void shutdown() {
+        if (task == null) return;
+        task.cancel();
+        task = null;
+    }
+
+    /**
+     * Checks if all doors were loaded once.
+     *
+     * @return true if the initial load is done
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Get the metadata of a door. Must be called from the main thread.
+     * <p>
+     * A unknown door is loaded asynchronously. Use {@link #isPending(long)} to check if a door does not exist or is not
+     * loaded yet.
+     *
+     * @param doorUID uid of the door
+     * @return metadata of the door or null if the door does not exist or is not loaded yet
+     */
+    public DoorData get(long doorUID) {
+        DoorData data = doors.get(doorUID);
+        if (data != null) return data;
+        if (loaded && !missing.contains(doorUID)) {
+            // unknown door. probably created since the last reload.
+            load(doorUID);
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a door is not known yet and still loaded.
+     *
+     * @param doorUID uid of the door
+     * @return true if the door may exist but is not loaded yet
+     */
+    public boolean isPending(long doorUID) {
+        return !loaded || pending.contains(doorUID);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onToggleEnd(DoorEventToggleEnd event) {
+        Door door = event.getDoor();
+        update(door.getDoorUID(), DoorData.of(door));
+    }
+
+    private void update(long doorUID, DoorData data) {
+        doors.put(doorUID, data);
+        revisions.put(doorUID, ++revision);
+        missing.remove(doorUID);
+    }
+
+    /**
+     * Get the revision of the last update of a door.
+     *
+     * @param doorUID uid of the door
+     * @return revision of the last update
+     */
+    private long lastUpdate(long doorUID) {
+        return Math.max(revisions.getOrDefault(doorUID, 0L), reconciled);
+    }
+
+    private void load(long doorUID) {
+        if (!pending.add(doorUID)) return;
+        long started = revision;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            DoorData data;
+            try {
+                Door door = commander.getDoor(null, doorUID);
+                data = door == null ? null : DoorData.of(door);
+            } catch (RuntimeException e) {
+                BigDoorsOpener.logger().log(Level.WARNING, "Could not load door " + doorUID + " of big doors.", e);
+                data = null;
+            }
+            if (!plugin.isEnabled()) return;
+            DoorData result = data;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                pending.remove(doorUID);
+                // the door was updated while it was loaded.
+                if (lastUpdate(doorUID) > started) return;
+                if (result == null) {
+                    missing.add(doorUID);
+                    return;
+                }
+                update(doorUID, result);
+            });
+        });
+    }
+
+    private void reconcile() {
+        long started = revision;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Map<Long, DoorData> snapshot = new HashMap<>();
+            try {
+                Set<Door> all = commander.getDoors();
+                for (Door door : all) {
+                    snapshot.put(door.getDoorUID(), DoorData.of(door));
+                }
+            } catch (RuntimeException e) {
+                BigDoorsOpener.logger().log(Level.WARNING, "Could not load doors of big doors.", e);
+                return;
+            }
+            if (!plugin.isEnabled()) return;
+            Bukkit.getScheduler().runTask(plugin, () -> apply(snapshot, started));
+        });
+    }
+
+    /**
+     * Replaces the mirror with a reloaded snapshot.
+     *
+     * @param snapshot doors of big doors
+     * @param started  revision when the snapshot was requested
+     */
+    private void apply(Map<Long, DoorData> snapshot, long started) {
+        // keep doors which were updated after the snapshot was requested.
+        for (Map.Entry<Long, Long> entry : revisions.entrySet()) {
+            if (entry.getValue() <= started) continue;
+            DoorData data = doors.get(entry.getKey());
+            if (data != null) snapshot.put(entry.getKey(), data);
+        }
+        doors = snapshot;
+        reconciled = ++revision;
+        revisions.values().removeIf(value -> value <= started);
+        missing.clear();
+        loaded = true;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.adapter;
+
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import nl.pim16aap2.bigDoors.BigDoors;
+import nl.pim16aap2.bigDoors.Commander;
+import nl.pim16aap2.bigDoors.Door;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the permission levels of online players on big doors doors in memory.
+ * <p>
+ * The doors of a player are loaded asynchronously in a single request when the player joins. All online players are
+ * loaded when the index is started and reloaded in a fixed interval. Big doors does not notify about ownership changes.
+ * Therefore all online players are also reloaded shortly after a command of big doors which changes owners was used.
+ * <p>
+ * A player whose doors could not be loaded has no permissions until a retry succeeds. The time between two retries is
+ * doubled with every failure.
+ * <p>
+ * Loaded permissions are applied on the main thread. Must only be accessed from the main thread.
+ */
+public class DoorOwnership implements Listener {
+    /**
+     * Ticks between two reloads of all online players.
+     */
+    private static final long RELOAD_INTERVAL = 20 * 60;
+    /**
+     * Ticks to wait after a ownership command before the players are reloaded.
+     */
+    private static final long COMMAND_DELAY = 20;
+    /**
+     * Milliseconds to wait before the doors of a player are requested again after the first failure.
+     */
+    private static final long RETRY_DELAY = 5000;
+    /**
+     * Max milliseconds to wait before the doors of a player are requested again.
+     */
+    private static final long MAX_RETRY_DELAY = 10 * 60 * 1000;
+    private static final Pattern OWNER_COMMAND = Pattern.compile("^/?(bigdoors |bdm )?(addowner|removeowner)\\b.*");
+
+    private final Plugin plugin;
+    private final Commander commander;
+    private final Map<UUID, Map<Long, Integer>> permissions = new HashMap<>();
+    private final Set<UUID> loading = new HashSet<>();
+    /**
+     * Players whose doors could not be loaded with the amount of failures and the time of the next retry.
+     */
+    private final Map<UUID, Failure> failures = new HashMap<>();
+    private BukkitTask task;
+
+    public DoorOwnership(Plugin plugin, BigDoors bigDoors) {
+        this.plugin = plugin;
+        this.commander = bigDoors.getCommander();
+    }
+
+    /**
+     * Starts the initial load and the periodic reload of all online players.
+     */
+    public void start() {
+        if (task != null) return;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::reloadAll, 0, RELOAD_INTERVAL);
+    }
+
+    /**
+     * Stops the periodic reload.
+     */
+    public void shutdown() {
+        if (task == null) return;
+        task.cancel();
+        task = null;
+    }
+
+    /**
+     * Get the permission level of a player on a door.
+     * <p>
+     * The permissions of a player, which are not loaded yet, are requested and {@code -1} is returned until they are
+     * loaded.
+     *
+     * @param player  player to check
+     * @param doorUID uid of the door
+     * @return permission level of the player or {@code -1} if the player has no access to the door.
+     */
+    public int getPermission(Player player, long doorUID) {
+        Map<Long, Integer> doors = permissions.get(player.getUniqueId());
+        if (doors == null) {
+            load(player.getUniqueId());
+            return -1;
+        }
+        return doors.getOrDefault(doorUID, -1);
+    }
+
+    private void reloadAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            load(player.getUniqueId());
+        }
+    }
+
+    private void load(UUID player) {
+        Failure failure = failures.get(player);
+        if (failure != null && failure.retryAt > System.currentTimeMillis()) return;
+        if (!loading.add(player)) return;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Map<Long, Integer> doors = new HashMap<>();
+            boolean success = true;
+            try {
+                List<Door> playerDoors = commander.getDoors(player.toString(), null);
+                if (playerDoors != null) {
+                    for (Door door : new ArrayList<>(playerDoors)) {
+                        doors.put(door.getDoorUID(), door.getPermission());
+                    }
+                }
+            } catch (RuntimeException e) {
+                // only log the first failure in a row.
+                BigDoorsOpener.logger().log(failure == null ? Level.WARNING : Level.FINE,
+                        "Could not load doors of player " + player + ".", e);
+                success = false;
+            }
+            if (!plugin.isEnabled()) return;
+            boolean loaded = success;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                loading.remove(player);
+                if (Bukkit.getPlayer(player) == null) return;
+                if (!loaded) {
+                    failures.computeIfAbsent(player, k -> new Failure()).failed();
+                    // keep the last loaded permissions or use no permissions until the retry.
+                    permissions.putIfAbsent(player, new HashMap<>());
+                    return;
+                }
+                failures.remove(player);
+                permissions.put(player, doors);
+            });
+        });
+    }
+
+    private void scheduleReload(String command) {
+        if (!OWNER_COMMAND.matcher(command.toLowerCase(Locale.ROOT)).matches()) return;
+        Bukkit.getScheduler().runTaskLater(plugin, this::reloadAll, COMMAND_DELAY);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        load(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        permissions.remove(event.getPlayer().getUniqueId());
+        failures.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        scheduleReload(event.getMessage());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onServerCommand(ServerCommandEvent event) {
+        scheduleReload(event.getCommand());
+    }
+
+    private static final class Failure {
+        private long delay = RETRY_DELAY / 2;
+        private long retryAt;
+
+        private void failed() {
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY);
+            retryAt = System.currentTimeMillis() + delay;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.adapter;
+
+import de.eldoria.bigdoorsopener.config.Config;
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Resolves single placeholders of players and reuses the values for a configurable time.
+ * <p>
+ * Values of expansions which are marked as async safe in the config are refreshed asynchronously when they are
+ * requested shortly before they expire. Until the new value is applied on the main thread the old value is used.
+ * Expired values are never used. They are resolved on the main thread like all other placeholders when they are
+ * requested after they expired.
+ * <p>
+ * Must only be accessed from the main thread.
+ */
+public class PlaceholderResolver implements Listener {
+    /**
+     * Part of the duration at the end of the lifetime of a value in which a async refresh is requested.
+     */
+    private static final int REFRESH_DIVISOR = 4;
+
+    private final Plugin plugin;
+    private final Config config;
+    private final Map<UUID, Map<String, Value>> players = new HashMap<>();
+
+    public PlaceholderResolver(Plugin plugin, Config config) {
+        this.plugin = plugin;
+        this.config = config;
+    }
+
+    /**
+     * Get the value of a placeholder for a player.
+     *
+     * @param player      player to resolve the placeholder for
+     * @param placeholder placeholder without percent signs
+     * @return resolved value of the placeholder
+     */
+    public String resolve(Player player, String placeholder) {
+        Map<String, Value> values = players.computeIfAbsent(player.getUniqueId(), k -> new HashMap<>());
+        Value value = values.get(placeholder);
+        long now = System.currentTimeMillis();
+
+        if (value != null && value.expires > now) {
+            if (value.refreshAt <= now && config.isAsyncPlaceholder(placeholder)) {
+                refresh(player, placeholder, value);
+            }
+            return value.value;
+        }
+
+        String resolved = PlaceholderAPI.setPlaceholders(player, "%" + placeholder + "%");
+        values.put(placeholder, new Value(resolved, now, config.placeholderCacheDuration(placeholder)));
+        return resolved;
+    }
+
+    /**
+     * Drops all resolved values.
+     */
+    public void clear() {
+        players.clear();
+    }
+
+    private void refresh(Player player, String placeholder, Value value) {
+        if (value.refreshing) return;
+        value.refreshing = true;
+        UUID uuid = player.getUniqueId();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            String resolved = null;
+            try {
+                resolved = PlaceholderAPI.setPlaceholders(player, "%" + placeholder + "%");
+            } catch (RuntimeException e) {
+                BigDoorsOpener.logger().log(Level.WARNING, "Could not resolve placeholder " + placeholder
+                        + " asynchronously. Remove the expansion from the async expansions.", e);
+            }
+            if (!plugin.isEnabled()) return;
+            String result = resolved;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                value.refreshing = false;
+                if (result == null) return;
+                Map<String, Value> values = players.get(uuid);
+                // the value was dropped in the meantime.
+                if (values == null || values.get(placeholder) != value) return;
+                values.put(placeholder, new Value(result, System.currentTimeMillis(),
+                        config.placeholderCacheDuration(placeholder)));
+            });
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        players.remove(event.getPlayer().getUniqueId());
+    }
+
+    private static final class Value {
+        private final String value;
+        private final long expires;
+        private final long refreshAt;
+        private boolean refreshing;
+
+        private Value(String value, long resolved, long duration) {
+            this.value = value;
+            expires = resolved + duration;
+            refreshAt = expires - duration / REFRESH_DIVISOR;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.adapter;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionContainer;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
+import de.eldoria.bigdoorsopener.util.LongMap;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provides the world guard regions at a block. Shared by all region conditions.
+ * <p>
+ * Only regions which contain the block are provided. Parent regions which do not contain the block themselves are not
+ * included, like {@link ProtectedRegion#contains(BlockVector3)}.
+ * <p>
+ * The regions are requested once per block and remembered by the packed block coordinates. A moving player
+ * therefore only causes a query when it enters a new block. All region conditions of all doors are answered from the
+ * same result.
+ * <p>
+ * Regions may be changed by world guard at any time. The remembered blocks of a world are dropped after a fixed time or
+ * when too many blocks are remembered. Must only be accessed from the main thread.
+ */
+public class RegionMembership implements Listener {
+    /**
+     * Milliseconds until the remembered blocks of a world are dropped.
+     */
+    private static final long EXPIRE_MILLIS = 30 * 1000;
+    /**
+     * Maximum amount of remembered blocks per world.
+     */
+    private static final int MAX_BLOCKS = 8192;
+
+    private final RegionContainer container;
+    private final Map<String, Blocks> worlds = new HashMap<>();
+
+    public RegionMembership(RegionContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * Packs block coordinates into a single long. 26 bits are used for x and z and 12 bits for y.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     * @return packed block key
+     */
+    public static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    /**
+     * Checks if the player of a context is inside a region.
+     *
+     * @param context context of the player
+     * @param region  region to check
+     * @return true if the player is inside the region
+     */
+    public boolean contains(PlayerContext context, ProtectedRegion region) {
+        return contains(context.world(), context.blockX(), context.blockY(), context.blockZ(), region);
+    }
+
+    /**
+     * Checks if a block is inside a region.
+     *
+     * @param world  world of the block
+     * @param x      x coordinate of the block
+     * @param y      y coordinate of the block
+     * @param z      z coordinate of the block
+     * @param region region to check
+     * @return true if the block is inside the region
+     */
+    public boolean contains(World world, int x, int y, int z, ProtectedRegion region) {
+        return getRegions(world, x, y, z).contains(region);
+    }
+
+    /**
+     * Get the regions which contain a block.
+     *
+     * @param world world of the block
+     * @param x     x coordinate of the block
+     * @param y     y coordinate of the block
+     * @param z     z coordinate of the block
+     * @return unmodifiable set of regions
+     */
+    public Set<ProtectedRegion> getRegions(World world, int x, int y, int z) {
+        Blocks blocks = worlds.computeIfAbsent(world.getName(), k -> new Blocks());
+        long now = System.currentTimeMillis();
+        if (blocks.created + EXPIRE_MILLIS < now || blocks.regions.size() >= MAX_BLOCKS) {
+            blocks.regions.clear();
+            blocks.created = now;
+        }
+
+        long key = blockKey(x, y, z);
+        Set<ProtectedRegion> regions = blocks.regions.get(key);
+        if (regions == null) {
+            regions = query(world, x, y, z);
+            blocks.regions.put(key, regions);
+        }
+        return regions;
+    }
+
+    /**
+     * Drops all remembered blocks.
+     */
+    public void clear() {
+        worlds.clear();
+    }
+
+    private Set<ProtectedRegion> query(World world, int x, int y, int z) {
+        RegionManager manager = container.get(BukkitAdapter.adapt(world));
+        if (manager == null) return Collections.emptySet();
+        BlockVector3 position = BlockVector3.at(x, y, z);
+        Set<ProtectedRegion> regions = new HashSet<>();
+        // the applicable regions include the parents of the regions
+        for (ProtectedRegion region : manager.getApplicableRegions(position)) {
+            if (region.contains(position)) regions.add(region);
+        }
+        if (regions.isEmpty()) return Collections.emptySet();
+        return Collections.unmodifiableSet(regions);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getName());
+    }
+
+    private static final class Blocks {
+        private final LongMap<Set<ProtectedRegion>> regions = new LongMap<>(256);
+        private long created = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.conditions;
+
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import de.eldoria.bigdoorsopener.core.scheduler.PlayerIndex;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.util.Vector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A snapshot of a player, which is shared by all conditions evaluated in the same tick.
+ * <p>
+ * The position of the player is read once, when the context is created. Held items and permissions are read on first
+ * access and remembered for the lifetime of the context. A context should therefore never outlive the tick it was
+ * created in.
+ */
+public final class PlayerContext {
+    private final Player player;
+    private final Location location;
+    private final World world;
+    private final int blockX;
+    private final int blockY;
+    private final int blockZ;
+    private Vector position;
+    private Vector blockPosition;
+    private ItemStack mainHand;
+    private ItemStack offHand;
+    private Map<String, Boolean> permissions;
+
+    private PlayerContext(Player player) {
+        this.player = player;
+        this.location = player.getLocation();
+        this.world = location.getWorld();
+        this.blockX = location.getBlockX();
+        this.blockY = location.getBlockY();
+        this.blockZ = location.getBlockZ();
+    }
+
+    /**
+     * Creates a new context for a player.
+     *
+     * @param player player of the context
+     * @return new context or null if the player is null
+     */
+    public static PlayerContext of(Player player) {
+        return player == null ? null : new PlayerContext(player);
+    }
+
+    /**
+     * Get the context of a player for the current tick. The context is shared with all other conditions evaluated in
+     * this tick.
+     *
+     * @param player player of the context
+     * @return context of the player or null if the player is null
+     */
+    public static PlayerContext current(Player player) {
+        if (player == null) return null;
+        PlayerIndex playerIndex = BigDoorsOpener.playerIndex();
+        return playerIndex == null ? new PlayerContext(player) : playerIndex.context(player);
+    }
+
+    public Player player() {
+        return player;
+    }
+
+    /**
+     * Get the location of the player when the context was created. The location must not be modified.
+     *
+     * @return location of the player
+     */
+    public Location location() {
+        return location;
+    }
+
+    public World world() {
+        return world;
+    }
+
+    public int blockX() {
+        return blockX;
+    }
+
+    public int blockY() {
+        return blockY;
+    }
+
+    public int blockZ() {
+        return blockZ;
+    }
+
+    /**
+     * Get the exact position of the player. The vector must not be modified.
+     *
+     * @return position of the player
+     */
+    public Vector position() {
+        if (position == null) {
+            position = location.toVector();
+        }
+        return position;
+    }
+
+    /**
+     * Get the position of the block the player is standing in. The vector must not be modified.
+     *
+     * @return block position of the player
+     */
+    public Vector blockPosition() {
+        if (blockPosition == null) {
+            blockPosition = new Vector(blockX, blockY, blockZ);
+        }
+        return blockPosition;
+    }
+
+    /**
+     * Get the item in the main hand of the player. The item must not be modified.
+     *
+     * @return item in main hand
+     */
+    public ItemStack mainHand() {
+        if (mainHand == null) {
+            readHands();
+        }
+        return mainHand;
+    }
+
+    /**
+     * Get the item in the off hand of the player. The item must not be modified.
+     *
+     * @return item in off hand
+     */
+    public ItemStack offHand() {
+        if (offHand == null) {
+            readHands();
+        }
+        return offHand;
+    }
+
+    /**
+     * Checks if the player has a permission. The result is remembered for the lifetime of the context.
+     *
+     * @param permission permission to check
+     * @return true if the player has the permission
+     */
+    public boolean hasPermission(String permission) {
+        if (permissions == null) {
+            permissions = new HashMap<>();
+        }
+        return permissions.computeIfAbsent(permission, player::hasPermission);
+    }
+
+    private void readHands() {
+        PlayerInventory inventory = player.getInventory();
+        mainHand = inventory.getItemInMainHand();
+        offHand = inventory.getItemInOffHand();
+    }
+}
@@ -11,7 +11,6 @@ import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.events.ConditionBagModifiedEvent;
 import de.eldoria.bigdoorsopener.core.events.DoorModifiedEvent;
 import de.eldoria.bigdoorsopener.core.events.DoorRegisteredEvent;
-import de.eldoria.bigdoorsopener.core.events.DoorUnregisteredEvent;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 
@@ -24,25 +23,19 @@ public class ModificationListener implements Listener {
 
     @EventHandler
     public void onConditionBagModification(ConditionBagModifiedEvent event) {
-        BigDoorsOpener.logger().fine("Config was modified. Saving config.");
-        config.safeConfig();
+        BigDoorsOpener.logger().fine("Door was modified. Saving door.");
+        config.saveDoor(event.door());
     }
 
     @EventHandler
     public void onDoorModifiedEvent(DoorModifiedEvent event) {
-        BigDoorsOpener.logger().fine("Config was modified. Saving config.");
-        config.safeConfig();
+        BigDoorsOpener.logger().fine("Door was modified. Saving door.");
+        config.saveDoor(event.door());
     }
 
     @EventHandler
     public void onDoorRegisteredEvent(DoorRegisteredEvent event) {
-        BigDoorsOpener.logger().fine("Config was modified. Saving config.");
-        config.safeConfig();
-    }
-
-    @EventHandler
-    public void onDoorUnregisteredEvent(DoorUnregisteredEvent event) {
-        BigDoorsOpener.logger().fine("Config was modified. Saving config.");
-        config.safeConfig();
+        BigDoorsOpener.logger().fine("Door was registered. Saving door.");
+        config.saveDoor(event.door());
     }
 }
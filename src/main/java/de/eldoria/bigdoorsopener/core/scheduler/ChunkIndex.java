@@ -0,0 +1,170 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import de.eldoria.bigdoorsopener.core.adapter.DoorData;
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Maps chunks to the doors inside them.
+ * <p>
+ * Every door counts the chunks of its block bounds which are not loaded. The counter is maintained by the chunk load
+ * and unload events. A door is loaded when all its chunks are loaded.
+ * <p>
+ * The block bounds of a door change when the door is toggled. The door has to be added again after each toggle.
+ */
+final class ChunkIndex {
+    private final Map<String, Map<Long, List<ConditionalDoor>>> worlds = new HashMap<>();
+    private final Map<ConditionalDoor, Entry> entries = new HashMap<>();
+
+    /**
+     * Packs the coordinates of a chunk into a single long.
+     *
+     * @param chunkX x coordinate of the chunk
+     * @param chunkZ z coordinate of the chunk
+     * @return packed chunk key
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds a door to the index.
+     *
+     * @param door  door to add
+     * @param world world of the door
+     * @param data  metadata of the door which provides the block bounds
+     * @return true if all chunks of the door are loaded
+     */
+    boolean add(ConditionalDoor door, World world, DoorData data) {
+        remove(door);
+        int minX = data.minX() >> 4;
+        int maxX = data.maxX() >> 4;
+        int minZ = data.minZ() >> 4;
+        int maxZ = data.maxZ() >> 4;
+
+        Map<Long, List<ConditionalDoor>> chunks = worlds.computeIfAbsent(world.getName(), k -> new HashMap<>());
+        long[] keys = new long[(maxX - minX + 1) * (maxZ - minZ + 1)];
+        int unloaded = 0;
+        int i = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                long key = chunkKey(x, z);
+                keys[i++] = key;
+                chunks.computeIfAbsent(key, k -> new ArrayList<>(1)).add(door);
+                if (!world.isChunkLoaded(x, z)) unloaded++;
+            }
+        }
+        Entry entry = new Entry(world.getName(), keys, unloaded);
+        entries.put(door, entry);
+        return entry.unloaded == 0;
+    }
+
+    /**
+     * Removes a door from the index.
+     *
+     * @param door door to remove
+     */
+    void remove(ConditionalDoor door) {
+        Entry entry = entries.remove(door);
+        if (entry == null) return;
+        Map<Long, List<ConditionalDoor>> chunks = worlds.get(entry.world);
+        if (chunks == null) return;
+        for (long key : entry.chunks) {
+            List<ConditionalDoor> doors = chunks.get(key);
+            if (doors == null) continue;
+            doors.remove(door);
+            if (doors.isEmpty()) {
+                chunks.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Removes all doors of a world from the index.
+     *
+     * @param world name of the world
+     */
+    void removeWorld(String world) {
+        worlds.remove(world);
+        entries.values().removeIf(entry -> entry.world.equals(world));
+    }
+
+    void clear() {
+        worlds.clear();
+        entries.clear();
+    }
+
+    boolean contains(ConditionalDoor door) {
+        return entries.containsKey(door);
+    }
+
+    /**
+     * Marks a chunk as loaded.
+     *
+     * @param world  name of the world
+     * @param chunkX x coordinate of the chunk
+     * @param chunkZ z coordinate of the chunk
+     * @param loaded receives the doors where all chunks are loaded now
+     */
+    void chunkLoaded(String world, int chunkX, int chunkZ, Consumer<ConditionalDoor> loaded) {
+        List<ConditionalDoor> doors = doors(world, chunkX, chunkZ);
+        if (doors == null) return;
+        for (ConditionalDoor door : doors) {
+            Entry entry = entries.get(door);
+            if (entry == null || entry.unloaded == 0) continue;
+            if (--entry.unloaded == 0) {
+                loaded.accept(door);
+            }
+        }
+    }
+
+    /**
+     * Marks a chunk as unloaded.
+     *
+     * @param world    name of the world
+     * @param chunkX   x coordinate of the chunk
+     * @param chunkZ   z coordinate of the chunk
+     * @param unloaded receives the doors which were loaded until now
+     */
+    void chunkUnloaded(String world, int chunkX, int chunkZ, Consumer<ConditionalDoor> unloaded) {
+        List<ConditionalDoor> doors = doors(world, chunkX, chunkZ);
+        if (doors == null) return;
+        for (ConditionalDoor door : doors) {
+            Entry entry = entries.get(door);
+            if (entry == null || entry.unloaded == entry.chunks.length) continue;
+            if (entry.unloaded++ == 0) {
+                unloaded.accept(door);
+            }
+        }
+    }
+
+    private List<ConditionalDoor> doors(String world, int chunkX, int chunkZ) {
+        Map<Long, List<ConditionalDoor>> chunks = worlds.get(world);
+        if (chunks == null) return null;
+        return chunks.get(chunkKey(chunkX, chunkZ));
+    }
+
+    private static final class Entry {
+        private final String world;
+        private final long[] chunks;
+        private int unloaded;
+
+        private Entry(String world, long[] chunks, int unloaded) {
+            this.world = world;
+            this.chunks = chunks;
+            this.unloaded = unloaded;
+        }
+    }
+}
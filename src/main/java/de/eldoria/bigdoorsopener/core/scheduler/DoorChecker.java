@@ -6,38 +6,81 @@
 
 package de.eldoria.bigdoorsopener.core.scheduler;
 
-import com.google.common.cache.Cache;
+import de.eldoria.bigdoorsopener.conditions.DoorCondition;
+import de.eldoria.bigdoorsopener.conditions.location.Location;
 import de.eldoria.bigdoorsopener.conditions.location.Proximity;
+import de.eldoria.bigdoorsopener.conditions.standalone.Time;
+import de.eldoria.bigdoorsopener.conditions.standalone.weather.Weather;
 import de.eldoria.bigdoorsopener.config.Config;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.adapter.BigDoorsAdapter;
+import de.eldoria.bigdoorsopener.core.adapter.DoorData;
+import de.eldoria.bigdoorsopener.core.adapter.DoorMirror;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
+import de.eldoria.bigdoorsopener.core.events.ConditionBagModifiedEvent;
+import de.eldoria.bigdoorsopener.core.events.DoorModifiedEvent;
 import de.eldoria.bigdoorsopener.core.events.DoorRegisteredEvent;
 import de.eldoria.bigdoorsopener.core.events.DoorUnregisteredEvent;
 import de.eldoria.bigdoorsopener.door.ConditionalDoor;
-import de.eldoria.bigdoorsopener.util.C;
 import de.eldoria.eldoutilities.functions.TriFunction;
 import nl.pim16aap2.bigDoors.BigDoors;
+import nl.pim16aap2.bigDoors.events.DoorEventToggleEnd;
 import org.bukkit.Bukkit;
 import org.bukkit.Server;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.weather.WeatherChangeEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.OptionalDouble;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.logging.Level;
-
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates the registered doors.
+ * <p>
+ * Doors are sharded by their world. Each {@link WorldShard} has its own evaluation budget and is only evaluated while
+ * its world is loaded.
+ * <p>
+ * If a time budget is configured the polling of doors with players nearby stops when the budget of the tick is used.
+ * Remaining doors are polled in the next ticks. The budget is reduced while the server is lagging.
+ * <p>
+ * Doors with a player close to the area of their conditions are polled with the near refresh rate. Doors with players
+ * only in the player check radius are polled with the refresh rate. Doors without players nearby are only evaluated
+ * when an input changes and by the idle sweep.
+ * <p>
+ * Doors with time conditions are woken by the {@link TimeWheel} of their world when a time condition reaches its open or
+ * close tick. Doors which only have such time conditions are not polled at all.
+ */
 public class DoorChecker extends BigDoorsAdapter implements Runnable, Listener {
+    /**
+     * Ticks between two updates of the near and far tier.
+     */
+    private static final int TIER_INTERVAL = 5;
 
-    private final Queue<ConditionalDoor> doors = new LinkedList<>();
+    /**
+     * All registered doors by the name of their world.
+     */
+    private final Map<String, WorldShard> shards = new HashMap<>();
+    /**
+     * Doors where an input changed. They are evaluated in the next tick.
+     */
+    private final Set<ConditionalDoor> pending = new LinkedHashSet<>();
     private final Server server = Bukkit.getServer();
 
     private final Config config;
@@ -46,33 +89,199 @@ public class DoorChecker extends BigDoorsAdapter implements Runnable, Listener {
     private final Set<ConditionalDoor> close = new HashSet<>();
     private final Set<ConditionalDoor> evaluated = new HashSet<>();
     Map<Long, Player> openedBy = new HashMap<>();
-    private final Cache<String, List<Player>> worldPlayers = C.getShortExpiringCache();
-    private final Cache<Long, Boolean> chunkStateCache = C.getShortExpiringCache();
+    private final ChunkIndex chunkIndex = new ChunkIndex();
     private final TriFunction<Vector, Vector, Vector, Boolean> proximity = Proximity.ProximityForm.CUBOID.check;
-    private double doorUpdateInterval;
+    private final PlayerIndex playerIndex;
+    private final DoorMirror doorMirror;
+    private final EvaluationWorker worker = new EvaluationWorker();
+    private final ToggleDispatcher dispatcher;
+    private final TickMonitor tickMonitor = new TickMonitor();
+    /**
+     * The tick when a active door was polled the last time.
+     */
+    private final Map<ConditionalDoor, Long> lastRefresh = new HashMap<>();
+    /**
+     * The smoothed ticks between two polls of a active door.
+     */
+    private final Map<ConditionalDoor, Double> refreshLatency = new HashMap<>();
+    /**
+     * The area in which a player is considered to be near a door.
+     */
+    private final Map<ConditionalDoor, BoundingBox> nearBounds = new HashMap<>();
+    private final List<ConditionalDoor> nearCandidates = new ArrayList<>();
+    private final List<ConditionalDoor> farCandidates = new ArrayList<>();
+    private final org.bukkit.Location location = new org.bukkit.Location(null, 0, 0, 0);
+    private boolean doorsChanged = true;
+    /**
+     * True if doors were loaded or unloaded since the last tick.
+     */
+    private boolean loadedChanged;
+    /**
+     * True if the doors of all loaded worlds were added to the chunk index.
+     */
+    private boolean indexed;
+    private long tick;
+    /**
+     * Nanoseconds the time budget was exceeded in the last ticks.
+     */
+    private long timeDebt;
 
-    public DoorChecker(Config config, BigDoors bigDoors) {
+    public DoorChecker(Config config, BigDoors bigDoors, PlayerIndex playerIndex, DoorMirror doorMirror) {
         super(bigDoors);
         this.config = config;
-        doors.addAll(config.getDoors());
+        this.playerIndex = playerIndex;
+        this.doorMirror = doorMirror;
+        dispatcher = new ToggleDispatcher(config, (door, open) -> setDoorState(open, door), this::isBusy);
+        config.getDoors().forEach(this::addDoor);
     }
 
-    public static DoorChecker start(BigDoorsOpener bigDoorsOpener, Config config, BigDoors doors) {
-        DoorChecker doorChecker = new DoorChecker(config, doors);
+    public static DoorChecker start(BigDoorsOpener bigDoorsOpener, Config config, BigDoors doors, PlayerIndex playerIndex,
+                                    DoorMirror doorMirror) {
+        DoorChecker doorChecker = new DoorChecker(config, doors, playerIndex, doorMirror);
         bigDoorsOpener.getServer().getScheduler().scheduleSyncRepeatingTask(bigDoorsOpener, doorChecker, 0, 1);
         return doorChecker;
     }
 
     @EventHandler
     public void onDoorRegister(DoorRegisteredEvent event) {
-        if (!doors.contains(event.door())) {
-            doors.add(event.door());
-        }
+        addDoor(event.door());
+        doorsChanged = true;
     }
 
     @EventHandler
     public void onDoorUnregister(DoorUnregisteredEvent event) {
-        doors.remove(event.door());
+        ConditionalDoor door = event.door();
+        if (door == null) return;
+        WorldShard shard = shards.get(door.world());
+        if (shard != null) {
+            shard.remove(door);
+        }
+        chunkIndex.remove(door);
+        dispatcher.cancel(door);
+        pending.remove(door);
+        lastRefresh.remove(door);
+        refreshLatency.remove(door);
+        nearBounds.remove(door);
+        doorsChanged = true;
+    }
+
+    @EventHandler
+    public void onConditionBagModified(ConditionBagModifiedEvent event) {
+        scheduleEvaluation(event.door());
+        doorsChanged = true;
+    }
+
+    @EventHandler
+    public void onDoorModified(DoorModifiedEvent event) {
+        scheduleEvaluation(event.door());
+        // the evaluator or the stay open time may decide whether the door is scheduled by the time wheel.
+        doorsChanged = true;
+    }
+
+    @EventHandler
+    public void onWeatherChange(WeatherChangeEvent event) {
+        WorldShard shard = shards.get(event.getWorld().getName());
+        if (shard == null) return;
+        for (ConditionalDoor door : shard.doors()) {
+            if (!door.conditionBag().getConditions("weather").isEmpty()) {
+                Weather.invalidate(door);
+                scheduleEvaluation(door);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        WorldShard shard = shards.get(event.getWorld().getName());
+        if (shard == null) return;
+        shard.activate(event.getWorld());
+        if (indexed) {
+            for (ConditionalDoor door : shard.all()) {
+                index(shard, door);
+            }
+        }
+        doorsChanged = true;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        WorldShard shard = shards.get(event.getWorld().getName());
+        if (shard == null) return;
+        for (ConditionalDoor door : shard.activeDoors()) {
+            lastRefresh.remove(door);
+        }
+        for (ConditionalDoor door : shard.nearDoors()) {
+            lastRefresh.remove(door);
+        }
+        chunkIndex.removeWorld(shard.name());
+        shard.deactivate();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        WorldShard shard = shards.get(event.getWorld().getName());
+        if (shard == null || !shard.isActive()) return;
+        chunkIndex.chunkLoaded(shard.name(), event.getChunk().getX(), event.getChunk().getZ(), door -> {
+            shard.setLoaded(door, true);
+            pending.add(door);
+            loadedChanged = true;
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        WorldShard shard = shards.get(event.getWorld().getName());
+        if (shard == null || !shard.isActive()) return;
+        chunkIndex.chunkUnloaded(shard.name(), event.getChunk().getX(), event.getChunk().getZ(), door -> {
+            if (shard.setLoaded(door, false)) {
+                lastRefresh.remove(door);
+            }
+            pending.remove(door);
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onToggleEnd(DoorEventToggleEnd event) {
+        if (!indexed) return;
+        ConditionalDoor door = config.getDoor(event.getDoor().getDoorUID());
+        if (door == null) return;
+        WorldShard shard = shards.get(door.world());
+        if (shard == null || !shard.isActive()) return;
+        // the block bounds of the door changed with the toggle. Read them from the event, the mirror may not be
+        // updated yet.
+        if (shard.setLoaded(door, chunkIndex.add(door, shard.world(), DoorData.of(event.getDoor())))) {
+            lastRefresh.remove(door);
+        }
+        loadedChanged = true;
+    }
+
+    /**
+     * Request the evaluation of a door in the next tick. Should be called when a input of a condition of the door
+     * changed.
+     *
+     * @param door door to evaluate
+     */
+    public void scheduleEvaluation(ConditionalDoor door) {
+        if (door == null) return;
+        pending.add(door);
+    }
+
+    /**
+     * Get the smoothed time between two polls of a door while players are nearby.
+     *
+     * @param door door to check
+     * @return ticks between two polls or empty if the door was not polled yet
+     */
+    public OptionalDouble refreshLatency(ConditionalDoor door) {
+        Double latency = refreshLatency.get(door);
+        return latency == null ? OptionalDouble.empty() : OptionalDouble.of(latency);
+    }
+
+    /**
+     * Stops the evaluation worker.
+     */
+    public void shutdown() {
+        worker.shutdown();
     }
 
     /**
@@ -80,40 +289,139 @@ public class DoorChecker extends BigDoorsAdapter implements Runnable, Listener {
      * Config#reloadConfig()}
      */
     public void reload() {
-        synchronized (doors) {
-            doors.clear();
-            doors.addAll(config.getDoors());
+        shards.clear();
+        chunkIndex.clear();
+        dispatcher.clear();
+        indexed = false;
+        config.getDoors().forEach(this::addDoor);
+        pending.clear();
+        lastRefresh.clear();
+        refreshLatency.clear();
+        doorsChanged = true;
+        playerIndex.reload(config.playerCheckRadius());
+    }
+
+    private void addDoor(ConditionalDoor door) {
+        WorldShard shard = shards.computeIfAbsent(door.world(), name -> new WorldShard(name, server.getWorld(name)));
+        shard.add(door);
+        if (indexed && shard.isActive()) {
+            index(shard, door);
+        }
+    }
+
+    /**
+     * Adds the doors of all loaded worlds to the chunk index.
+     */
+    private void indexAll() {
+        for (WorldShard shard : shards.values()) {
+            if (!shard.isActive()) continue;
+            for (ConditionalDoor door : shard.all()) {
+                index(shard, door);
+            }
+        }
+        indexed = true;
+        loadedChanged = true;
+    }
+
+    /**
+     * Adds a door of a loaded world to the chunk index.
+     *
+     * @param shard shard of the door
+     * @param door  door to add
+     */
+    private void index(WorldShard shard, ConditionalDoor door) {
+        DoorData data = getDoorData(door.doorUID());
+        if (data == null) {
+            // the door will be removed or indexed on the next evaluation
+            shard.setLoaded(door, true);
+            return;
         }
+        shard.setLoaded(door, chunkIndex.add(door, shard.world(), data));
     }
 
     @Override
     public void run() {
-        if (doors.isEmpty()) return;
+        tickMonitor.tick();
+        tick++;
+
+        // refresh first. Contexts of the last tick must not be reused by listeners while no doors are evaluated.
+        playerIndex.refresh();
+
+        if (shards.isEmpty()) return;
+
+        if (!indexed) {
+            // wait until the doors of big doors are loaded.
+            if (!doorMirror.isLoaded()) return;
+            indexAll();
+        }
+
+        if (doorsChanged) {
+            updateTimeDoors();
+        }
+
+        if (playerIndex.pollChanges() || doorsChanged || loadedChanged) {
+            updateActiveDoors();
+        }
+        loadedChanged = false;
+
+        if (doorsChanged) {
+            nearBounds.clear();
+        }
+        doorsChanged = false;
 
-        doorUpdateInterval += doors.size() / (double) config.refreshRate();
+        if (tick % TIER_INTERVAL == 0) {
+            updateTiers();
+        }
 
+        checkTimeTransitions();
 
         open.clear();
         close.clear();
         evaluated.clear();
         openedBy.clear();
 
-        while (doorUpdateInterval > 1) {
-            evaluateNextDoor();
-            doorUpdateInterval--;
+        // Apply the results of the worker from the last ticks.
+        worker.drain(this::applyResult);
+
+        // Evaluate doors with changed input first.
+        if (!pending.isEmpty()) {
+            List<ConditionalDoor> changed = new ArrayList<>(pending);
+            pending.clear();
+            for (ConditionalDoor door : changed) {
+                WorldShard shard = shards.get(door.world());
+                if (shard == null || !shard.isActive() || !shard.isLoaded(door)) continue;
+                evaluateDoor(door, shard.world());
+            }
         }
 
-        // Open doors
-        for (ConditionalDoor conditionalDoor : open) {
-            setDoorState(true, conditionalDoor).whenComplete((res, err) -> {
-                if (res) conditionalDoor.opened(openedBy.get(conditionalDoor.doorUID()));
-            });
+        pollActiveDoors();
+
+        for (WorldShard shard : shards.values()) {
+            if (!shard.isActive()) continue;
+            World world = shard.world();
+
+            // Sweep all remaining doors slowly as safety net.
+            for (int budget = shard.doors().budget(config.idleRefreshRate()); budget > 0; budget--) {
+                ConditionalDoor door = shard.doors().next();
+                if (door == null) break;
+                evaluateDoor(door, world);
+            }
         }
 
-        // Close doors
+        // Queue door toggles
+        for (ConditionalDoor conditionalDoor : open) {
+            dispatcher.request(conditionalDoor, true, openedBy.get(conditionalDoor.doorUID()));
+        }
         for (ConditionalDoor conditionalDoor : close) {
-            setDoorState(false, conditionalDoor);
+            dispatcher.request(conditionalDoor, false, null);
+        }
+        // Drop queued toggles of doors which are already in the evaluated state.
+        for (ConditionalDoor conditionalDoor : evaluated) {
+            if (!open.contains(conditionalDoor) && !close.contains(conditionalDoor)) {
+                dispatcher.cancel(conditionalDoor);
+            }
         }
+        dispatcher.dispatch();
 
         // Notify doors that they were evaluated.
         for (ConditionalDoor conditionalDoor : evaluated) {
@@ -121,45 +429,277 @@ public class DoorChecker extends BigDoorsAdapter implements Runnable, Listener {
         }
     }
 
-    public void evaluateNextDoor() {
-        // poll from queue and append door again.
-        ConditionalDoor door = doors.poll();
-        assert door != null : "Door is null. How could this happen?";
+    /**
+     * Poll doors with players nearby with the refresh rate. If a time budget is set, the polling stops when the budget
+     * of a shard is used. Each shard gets a share of the budget depending on its amount of active doors.
+     */
+    private void pollActiveDoors() {
+        long slice = timeSlice();
+        long available = slice - timeDebt;
+        int totalActive = 0;
+        if (slice > 0) {
+            for (WorldShard shard : shards.values()) {
+                if (shard.isActive()) totalActive += shard.nearDoors().size() + shard.activeDoors().size();
+            }
+        }
+
+        long start = System.nanoTime();
+        for (WorldShard shard : shards.values()) {
+            if (!shard.isActive()) continue;
+            DoorRing nearDoors = shard.nearDoors();
+            DoorRing activeDoors = shard.activeDoors();
+            int nearBudget = nearDoors.budget(config.nearRefreshRate());
+            int budget = activeDoors.budget(config.refreshRate());
+            if (slice > 0 && available <= 0) {
+                // the budget was exceeded in the last ticks. Poll the doors later.
+                nearDoors.refund(nearBudget);
+                activeDoors.refund(budget);
+                continue;
+            }
+            long deadline = 0;
+            if (slice > 0) {
+                int size = nearDoors.size() + activeDoors.size();
+                deadline = System.nanoTime() + available * size / Math.max(totalActive, 1);
+            }
+            // doors in the near tier first
+            nearDoors.refund(nearBudget - poll(nearDoors, nearBudget, shard.world(), slice > 0, deadline));
+            activeDoors.refund(budget - poll(activeDoors, budget, shard.world(), slice > 0, deadline));
+        }
+
+        if (slice > 0) {
+            // carry the exceeded time over to the next ticks
+            timeDebt = Math.max(timeDebt + System.nanoTime() - start - slice, 0);
+        } else {
+            timeDebt = 0;
+        }
+    }
+
+    /**
+     * Poll the next doors of a ring.
+     *
+     * @param ring     ring to poll
+     * @param budget   max number of doors to poll
+     * @param world    world of the doors
+     * @param timed    true if the deadline should be respected
+     * @param deadline value of {@link System#nanoTime()} when the polling should stop
+     * @return number of polled doors
+     */
+    private int poll(DoorRing ring, int budget, World world, boolean timed, long deadline) {
+        int polled = 0;
+        while (polled < budget) {
+            if (timed && System.nanoTime() - deadline >= 0) break;
+            ConditionalDoor door = ring.next();
+            if (door == null) break;
+            recordRefresh(door);
+            evaluateDoor(door, world);
+            polled++;
+        }
+        return polled;
+    }
 
-        if (!doorExists(door)) {
-            config.removeDoor(door.doorUID());
-            BigDoorsOpener.logger().info("Door with id " + door.doorUID() + " has been deleted. Removing.");
-            return;
+    /**
+     * Get the time budget for this tick. The budget is reduced proportional to the lag of the server.
+     *
+     * @return budget in nanoseconds or 0 if no time budget is set
+     */
+    private long timeSlice() {
+        double budget = config.evaluationTimeBudget();
+        if (budget <= 0) return 0;
+        double mspt = tickMonitor.mspt();
+        if (mspt > config.lagThreshold()) {
+            budget *= Math.max(config.lagThreshold() / mspt, 0.1);
         }
+        return Math.max((long) (budget * 1_000_000), 1);
+    }
 
-        doors.add(door);
+    private void recordRefresh(ConditionalDoor door) {
+        Long last = lastRefresh.put(door, tick);
+        if (last == null || last == tick) return;
+        refreshLatency.merge(door, (double) (tick - last), (old, latency) -> old + (latency - old) * 0.2);
+    }
 
-        World world = server.getWorld(door.world());
-        // If the world of the door does not exists, why should we evaluate it.
-        if (world == null) return;
+    /**
+     * Moves the active doors into the near or far tier. A door is in the near tier if a player is close to the area of
+     * its location conditions. Doors which only have world conditions are always in the far tier.
+     */
+    private void updateTiers() {
+        for (WorldShard shard : shards.values()) {
+            if (!shard.isActive() || (shard.nearDoors().isEmpty() && shard.activeDoors().isEmpty())) continue;
+            nearCandidates.clear();
+            for (ConditionalDoor door : shard.activeDoors()) {
+                if (door.requiresPlayerEvaluation() && isPlayerNear(door, shard.world())) {
+                    nearCandidates.add(door);
+                }
+            }
+            for (ConditionalDoor door : shard.nearDoors()) {
+                if (!isPlayerNear(door, shard.world())) {
+                    farCandidates.add(door);
+                }
+            }
+            for (ConditionalDoor door : nearCandidates) {
+                shard.setTier(door, true);
+                // react on the approaching player right away
+                pending.add(door);
+            }
+            for (ConditionalDoor door : farCandidates) {
+                shard.setTier(door, false);
+            }
+            nearCandidates.clear();
+            farCandidates.clear();
+        }
+    }
+
+    private boolean isPlayerNear(ConditionalDoor door, World world) {
+        BoundingBox bounds = nearBounds.computeIfAbsent(door, this::nearBounds);
+        Vector center = bounds.getCenter();
+        Vector radius = new Vector(bounds.getWidthX() / 2, bounds.getHeight() / 2, bounds.getWidthZ() / 2);
+        for (Player player : playerIndex.getNearbyPlayers(world, center, radius)) {
+            player.getLocation(location);
+            if (bounds.contains(location.getX(), location.getY(), location.getZ())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the area around the location conditions of a door. If the door has no location condition with a known
+     * area, the area around the door is used.
+     *
+     * @param door door
+     * @return area in which a player is considered to be near the door
+     */
+    private BoundingBox nearBounds(ConditionalDoor door) {
+        BoundingBox bounds = null;
+        for (DoorCondition condition : door.conditionBag().getConditions()) {
+            if (!(condition instanceof Location)) continue;
+            BoundingBox conditionBounds = ((Location) condition).bounds(door);
+            if (conditionBounds == null) continue;
+            bounds = bounds == null ? conditionBounds.clone() : bounds.union(conditionBounds);
+        }
+        if (bounds == null) {
+            bounds = BoundingBox.of(door.position(), 0, 0, 0);
+        }
+        return bounds.expand(config.nearDistance());
+    }
+
+    /**
+     * Collects the doors which have players nearby. Doors which become active or inactive are evaluated once to react
+     * on the player entering or leaving their radius.
+     */
+    private void updateActiveDoors() {
+        for (WorldShard shard : shards.values()) {
+            if (!shard.isActive()) continue;
+            boolean players = playerIndex.hasPlayers(shard.name());
+            for (ConditionalDoor door : shard.doors()) {
+                boolean nearby;
+                if (!players) {
+                    nearby = false;
+                } else if (door.requiresPlayerEvaluation()) {
+                    nearby = playerIndex.hasNearbyPlayers(shard.name(), door.position(), config.playerCheckRadius());
+                } else {
+                    // world conditions may check players anywhere in the world
+                    nearby = true;
+                }
 
-        // check if chunk of door is loaded. if not skip.
-        try {
-            if (chunkStateCache.get(door.doorUID(), () -> !isDoorLoaded(getDoor(door.doorUID())))) {
-                // Skip doors in unloaded chunks
-                return;
+                if (nearby) {
+                    if (shard.activate(door)) {
+                        pending.add(door);
+                    }
+                } else if (shard.deactivate(door)) {
+                    lastRefresh.remove(door);
+                    pending.add(door);
+                }
             }
-        } catch (ExecutionException e) {
-            BigDoorsOpener.logger().log(Level.WARNING,
-                    "An error occured while calculating the chunk cache state. Please report this.", e);
+        }
+    }
+
+    private void updateTimeDoors() {
+        for (WorldShard shard : shards.values()) {
+            TimeWheel timeWheel = shard.timeWheel();
+            timeWheel.clear();
+            for (ConditionalDoor door : shard.all()) {
+                List<DoorCondition> conditions = door.conditionBag().getConditions("time");
+                shard.setScheduled(door, isTimeOnly(door));
+                if (conditions.isEmpty()) continue;
+                int[] ticks = conditions.stream()
+                        .filter(Time.class::isInstance)
+                        .map(Time.class::cast)
+                        .flatMapToInt(t -> IntStream.of(t.openTick(), t.closeTick()))
+                        .toArray();
+                timeWheel.add(door, ticks);
+            }
+        }
+    }
+
+    /**
+     * Checks if the state of a door only changes when a time condition reaches its open or close tick. Such doors do not
+     * need to be polled. Time conditions which force their state and doors which stay open for some time still need
+     * polling.
+     *
+     * @param door door to check
+     * @return true if the door only has time conditions which do not force their state
+     */
+    private boolean isTimeOnly(ConditionalDoor door) {
+        if (door.evaluationType() == ConditionalDoor.EvaluationType.CUSTOM || door.stayOpen() > 0) return false;
+        Collection<DoorCondition> conditions = door.conditionBag().getConditions();
+        if (conditions.isEmpty()) return false;
+        for (DoorCondition condition : conditions) {
+            if (!(condition instanceof Time) || ((Time) condition).forceState()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Advances the time wheels of all loaded worlds and schedules the doors where a time condition reached its open or
+     * close tick.
+     */
+    private void checkTimeTransitions() {
+        for (WorldShard shard : shards.values()) {
+            if (!shard.isActive() || shard.timeWheel().isEmpty()) continue;
+            shard.timeWheel().advance(shard.world().getFullTime(), this::scheduleEvaluation);
+        }
+    }
+
+    /**
+     * Evaluates a door of a loaded world.
+     *
+     * @param door  door to evaluate
+     * @param world world of the door. Provided by the shard of the door.
+     */
+    private void evaluateDoor(ConditionalDoor door, World world) {
+        // a door is only evaluated once per tick.
+        if (evaluated.contains(door)) return;
+
+        // Make sure that this door still exists on the doors plugin.
+        DoorData data = getDoorData(door.doorUID());
+        if (data == null) {
+            // the door is not known to the mirror yet.
+            if (doorMirror.isPending(door.doorUID())) return;
+            config.removeDoor(door.doorUID());
+            BigDoorsOpener.logger().info("Door with id " + door.doorUID() + " has been deleted. Removing.");
             return;
         }
 
+        if (!chunkIndex.contains(door)) {
+            // the door was not known to the mirror when it was indexed.
+            WorldShard shard = shards.get(door.world());
+            index(shard, door);
+            loadedChanged = true;
+            if (!shard.isLoaded(door)) return;
+        }
+
         // skip busy doors. bcs why should we try to open/close a door we cant open/close
         if (commander().isDoorBusy(door.doorUID()) || !door.isEnabled()) {
             return;
         }
 
         // big doors doesnt prevent bdo from opening locked door. We need to check this by ourself
-        if (getDoor(door.doorUID()).isLocked()) {
+        if (data.isLocked()) {
             return;
         }
 
+        // the door is still evaluated by the worker
+        if (worker.isInFlight(door)) return;
+
         // collect all doors we evaluated.
         evaluated.add(door);
 
@@ -174,36 +714,48 @@ public class DoorChecker extends BigDoorsAdapter implements Runnable, Listener {
 
     private void evaluatePlayer(ConditionalDoor door, World world) {
         boolean open = isOpen(door);
+        // Evaluate the world conditions once for all players.
+        Boolean worldState = door.getWorldState(world, open);
+        Boolean decided = door.getDecidedState(worldState);
         boolean opened = false;
         // Evaluate door per player. If one player can open it, it will open.
-        try {
-            boolean checked = false;
-            for (Player player : worldPlayers.get(world.getName(), world::getPlayers)) {
-                if (!proximity.apply(door.position(), player.getLocation().toVector(), config.playerCheckRadius())) {
-                    continue;
-                }
-                checked = true;
-                if (!door.getState(player, world, open)) continue;
-
-                opened = true;
-                // only open the door if its not yet open. because why open it then.
-                if (!open) {
-                    this.open.add(door);
-                    openedBy.put(door.doorUID(), player);
-                }
-                break;
+        Player inRange = null;
+        for (Player player : playerIndex.getNearbyPlayers(world, door.position(), config.playerCheckRadius())) {
+            PlayerContext context = playerIndex.context(player);
+            if (!proximity.apply(door.position(), context.position(), config.playerCheckRadius())) {
+                continue;
             }
-            if (checked && door.getState(null, world, open)) {
-                opened = true;
-                // only open the door if its not yet open. because why open it then.
-                if (open) return;
+            inRange = player;
+            // the world conditions decide the state. A single player in range is enough.
+            if (decided != null) break;
+            if (!door.getState(context, world, open, worldState)) continue;
 
+            opened = true;
+            // only open the door if its not yet open. because why open it then.
+            if (!open) {
                 this.open.add(door);
-                openedBy.put(door.doorUID(), null);
-                return;
+                openedBy.put(door.doorUID(), player);
             }
-        } catch (ExecutionException e) {
-            BigDoorsOpener.logger().log(Level.WARNING, "Failed to compute. Please report this.", e);
+            break;
+        }
+
+        boolean worldOpen;
+        if (decided != null) {
+            worldOpen = decided;
+        } else {
+            // Only custom evaluators may be opened without a player at this point.
+            worldOpen = !opened && door.evaluationType() == ConditionalDoor.EvaluationType.CUSTOM
+                    && door.getState(null, world, open);
+        }
+        if (inRange != null && worldOpen) {
+            opened = true;
+            // only open the door if its not yet open. because why open it then.
+            if (open) return;
+
+            this.open.add(door);
+            // the player in range opened the door, if the world conditions decided the state.
+            openedBy.put(door.doorUID(), decided != null ? inRange : null);
+            return;
         }
         if (!opened && open) {
             close.add(door);
@@ -212,6 +764,13 @@ public class DoorChecker extends BigDoorsAdapter implements Runnable, Listener {
 
     private void evaluateWorld(ConditionalDoor door, World world) {
         boolean open = isOpen(door);
+
+        // resolve the conditions now and let the worker evaluate the expression.
+        String expression = door.resolveCustom(world, open);
+        if (expression != null && worker.submit(door, expression, open)) {
+            return;
+        }
+
         // Evaluate door.
         if (door.getState(null, world, open)) {
             if (!open) {
@@ -223,4 +782,28 @@ public class DoorChecker extends BigDoorsAdapter implements Runnable, Listener {
             }
         }
     }
+
+    private void applyResult(EvaluationWorker.Result result) {
+        ConditionalDoor door = result.door();
+        // door was removed or replaced in the meantime
+        if (config.getDoor(door.doorUID()) != door) return;
+
+        if (commander().isDoorBusy(door.doorUID()) || !door.isEnabled()) return;
+
+        boolean open = isOpen(door);
+        if (open != result.previousState()) {
+            // the door changed its state while the snapshot was evaluated. The result is outdated.
+            scheduleEvaluation(door);
+            return;
+        }
+
+        evaluated.add(door);
+        if (result.state()) {
+            if (!open) {
+                this.open.add(door);
+            }
+        } else if (open) {
+            close.add(door);
+        }
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A array backed ring of doors with a cursor.
+ * <p>
+ * {@link #next()} returns the door at the cursor and advances the cursor. Unlike polling and re-adding doors to a
+ * queue this does not allocate anything per door. Removing a door keeps the cursor on the door which would have been
+ * returned next.
+ * <p>
+ * Every ring has its own evaluation budget. The budget grows by the share of doors which have to be evaluated per tick
+ * to evaluate every door once per refresh rate.
+ */
+final class DoorRing implements Iterable<ConditionalDoor> {
+    private final Set<ConditionalDoor> members = new HashSet<>();
+    private ConditionalDoor[] doors = new ConditionalDoor[16];
+    private int size;
+    private int cursor;
+    private double budget;
+
+    /**
+     * Adds a door at the end of the ring.
+     *
+     * @param door door to add
+     * @return true if the door was not already part of the ring
+     */
+    boolean add(ConditionalDoor door) {
+        if (!members.add(door)) return false;
+        if (size == doors.length) {
+            doors = Arrays.copyOf(doors, size * 2);
+        }
+        doors[size++] = door;
+        return true;
+    }
+
+    /**
+     * Removes a door from the ring.
+     *
+     * @param door door to remove
+     * @return true if the door was part of the ring
+     */
+    boolean remove(ConditionalDoor door) {
+        if (!members.remove(door)) return false;
+        int index = indexOf(door);
+        System.arraycopy(doors, index + 1, doors, index, size - index - 1);
+        doors[--size] = null;
+        if (index < cursor) cursor--;
+        if (cursor >= size) cursor = 0;
+        return true;
+    }
+
+    boolean contains(ConditionalDoor door) {
+        return members.contains(door);
+    }
+
+    /**
+     * Get the door at the cursor and move the cursor to the next door.
+     *
+     * @return the next door or null if the ring is empty
+     */
+    ConditionalDoor next() {
+        if (size == 0) return null;
+        ConditionalDoor door = doors[cursor];
+        if (++cursor == size) cursor = 0;
+        return door;
+    }
+
+    /**
+     * Adds the share of the doors to the budget.
+     *
+     * @param refreshRate ticks until every door was evaluated once
+     * @return number of doors which should be evaluated in this tick
+     */
+    int budget(int refreshRate) {
+        budget += size / (double) refreshRate;
+        int count = 0;
+        while (budget > 1) {
+            budget--;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns doors to the budget which could not be evaluated in this tick. The budget never exceeds the amount of
+     * doors.
+     *
+     * @param count number of doors which were not evaluated
+     */
+    void refund(int count) {
+        budget = Math.min(budget + count, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(doors, 0, size, null);
+        members.clear();
+        size = 0;
+        cursor = 0;
+        budget = 0;
+    }
+
+    private int indexOf(ConditionalDoor door) {
+        for (int i = 0; i < size; i++) {
+            if (doors[i].equals(door)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public Iterator<ConditionalDoor> iterator() {
+        return new Iterator<ConditionalDoor>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public ConditionalDoor next() {
+                if (index >= size) throw new NoSuchElementException();
+                return doors[index++];
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Evaluates the custom evaluator of world scoped doors off the main thread.
+ * <p>
+ * The conditions of a door are resolved on the main thread into a snapshot. The worker only evaluates the snapshot
+ * with the js engine. Results are collected and applied by the {@link DoorChecker} on the main thread in the next
+ * tick.
+ * <p>
+ * The script engine is not thread safe. Therefore only a single worker thread is used.
+ */
+public class EvaluationWorker {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BigDoorsOpener Evaluation Worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<Result> results = new ConcurrentLinkedQueue<>();
+    /**
+     * Doors which are currently evaluated by the worker. Only accessed from the main thread.
+     */
+    private final Set<ConditionalDoor> inFlight = new HashSet<>();
+
+    /**
+     * Submit a snapshot of a door for evaluation.
+     *
+     * @param door         door which was resolved
+     * @param expression   resolved expression of the door
+     * @param currentState state of the door when the expression was resolved
+     * @return true if the snapshot was submitted. False if the door is already evaluated or the worker is shut down.
+     */
+    public boolean submit(ConditionalDoor door, String expression, boolean currentState) {
+        if (!inFlight.add(door)) return false;
+        try {
+            executor.execute(() -> {
+                // a result is always posted. Otherwise the door would stay in flight forever.
+                boolean state = currentState;
+                try {
+                    Object value = BigDoorsOpener.JS().<Object>eval(expression, currentState);
+                    if (value instanceof Boolean) {
+                        state = (Boolean) value;
+                    } else {
+                        BigDoorsOpener.logger().log(Level.WARNING, "Custom evaluator of door " + door.doorUID()
+                                + " returned " + value + " instead of a boolean.");
+                    }
+                } catch (RuntimeException e) {
+                    BigDoorsOpener.logger().log(Level.WARNING, "Failed to evaluate custom evaluator of door "
+                            + door.doorUID() + ".", e);
+                } finally {
+                    results.add(new Result(door, currentState, state));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(door);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a door is currently evaluated.
+     *
+     * @param door door to check
+     * @return true if the result of the door is not yet applied
+     */
+    public boolean isInFlight(ConditionalDoor door) {
+        return inFlight.contains(door);
+    }
+
+    /**
+     * Pass all finished results to the consumer. Must be called from the main thread.
+     *
+     * @param consumer consumer for results
+     */
+    public void drain(Consumer<Result> consumer) {
+        Result result;
+        while ((result = results.poll()) != null) {
+            inFlight.remove(result.door());
+            consumer.accept(result);
+        }
+    }
+
+    /**
+     * Stops the worker. Pending snapshots are discarded.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        results.clear();
+        inFlight.clear();
+    }
+
+    public static final class Result {
+        private final ConditionalDoor door;
+        private final boolean previousState;
+        private final boolean state;
+
+        private Result(ConditionalDoor door, boolean previousState, boolean state) {
+            this.door = door;
+            this.previousState = previousState;
+            this.state = state;
+        }
+
+        public ConditionalDoor door() {
+            return door;
+        }
+
+        /**
+         * The state of the door when the snapshot was taken.
+         *
+         * @return true if the door was open
+         */
+        public boolean previousState() {
+            return previousState;
+        }
+
+        /**
+         * The evaluated state of the door.
+         *
+         * @return true if the door should be open
+         */
+        public boolean state() {
+            return state;
+        }
+    }
+}
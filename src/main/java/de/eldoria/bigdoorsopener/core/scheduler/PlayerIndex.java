@@ -0,0 +1,300 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A per world grid of online players.
+ * <p>
+ * Players are sorted into square cells on the x/z plane. The grid is only updated for players which crossed a cell
+ * border since the last {@link #refresh()}, which is called once per tick by the {@link DoorChecker}.
+ * <p>
+ * The cell size is at least the size of a chunk and at least the player check radius. A query spans at most twice the
+ * radius on each axis. This way a query for the players around a door will never touch more than 3x3 cells.
+ * <p>
+ * The index also provides a {@link PlayerContext} per player and a {@link PlayerPositions} snapshot per world, which
+ * are shared by all evaluations in the same tick.
+ */
+public class PlayerIndex implements Listener {
+    private static final int MIN_CELL_SHIFT = 4;
+
+    private final Map<String, Map<Long, List<Player>>> worlds = new HashMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Set<Player> dirty = new HashSet<>();
+    private final Map<UUID, PlayerContext> contexts = new HashMap<>();
+    private final Map<String, PlayerPositions> positions = new HashMap<>();
+    private final List<Player> result = new ArrayList<>();
+    private int cellShift = MIN_CELL_SHIFT;
+    private boolean changed;
+    private long tick;
+
+    public PlayerIndex(Vector radius) {
+        reload(radius);
+    }
+
+    /**
+     * Packs the coordinates of a cell into a single long.
+     *
+     * @param cellX x coordinate of the cell
+     * @param cellZ z coordinate of the cell
+     * @return packed cell key
+     */
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Clears the index and sorts all online players into a grid which matches the new radius.
+     *
+     * @param radius the player check radius
+     */
+    public void reload(Vector radius) {
+        int size = (int) Math.ceil(Math.max(radius.getX(), radius.getZ()));
+        int shift = MIN_CELL_SHIFT;
+        while ((1 << shift) < size && shift < 30) {
+            shift++;
+        }
+        cellShift = shift;
+
+        worlds.clear();
+        entries.clear();
+        contexts.clear();
+        positions.clear();
+        dirty.clear();
+        changed = true;
+        dirty.addAll(Bukkit.getOnlinePlayers());
+        refresh();
+    }
+
+    /**
+     * Moves all players which changed their cell since the last refresh.
+     */
+    public void refresh() {
+        tick++;
+        contexts.clear();
+        if (dirty.isEmpty()) return;
+        changed = true;
+        for (Player player : dirty) {
+            remove(player.getUniqueId());
+            if (!player.isOnline()) continue;
+            Location location = player.getLocation();
+            String world = location.getWorld().getName();
+            long cell = cellKey(location.getBlockX() >> cellShift, location.getBlockZ() >> cellShift);
+            worlds.computeIfAbsent(world, k -> new HashMap<>())
+                    .computeIfAbsent(cell, k -> new ArrayList<>())
+                    .add(player);
+            entries.put(player.getUniqueId(), new Entry(player, world, cell));
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Get the players in all cells, which are overlapped by the area around the position.
+     * <p>
+     * The result is a superset of the players inside the area. The returned list is reused by the next call.
+     *
+     * @param world    world to check
+     * @param position center of the area
+     * @param radius   radius of the area
+     * @return list of players which may be inside the area
+     */
+    public List<Player> getNearbyPlayers(World world, Vector position, Vector radius) {
+        result.clear();
+        Map<Long, List<Player>> cells = worlds.get(world.getName());
+        if (cells == null || cells.isEmpty()) return result;
+
+        int minX = (int) Math.floor(position.getX() - radius.getX()) >> cellShift;
+        int maxX = (int) Math.floor(position.getX() + radius.getX()) >> cellShift;
+        int minZ = (int) Math.floor(position.getZ() - radius.getZ()) >> cellShift;
+        int maxZ = (int) Math.floor(position.getZ() + radius.getZ()) >> cellShift;
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                List<Player> players = cells.get(cellKey(x, z));
+                if (players != null) {
+                    result.addAll(players);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if any player is in a cell which is overlapped by the area around the position.
+     *
+     * @param world    name of the world
+     * @param position center of the area
+     * @param radius   radius of the area
+     * @return true if a player may be inside the area
+     */
+    public boolean hasNearbyPlayers(String world, Vector position, Vector radius) {
+        Map<Long, List<Player>> cells = worlds.get(world);
+        if (cells == null || cells.isEmpty()) return false;
+
+        int minX = (int) Math.floor(position.getX() - radius.getX()) >> cellShift;
+        int maxX = (int) Math.floor(position.getX() + radius.getX()) >> cellShift;
+        int minZ = (int) Math.floor(position.getZ() - radius.getZ()) >> cellShift;
+        int maxZ = (int) Math.floor(position.getZ() + radius.getZ()) >> cellShift;
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                if (cells.containsKey(cellKey(x, z))) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if any player is in the world.
+     *
+     * @param world name of the world
+     * @return true if at least one player is in the world
+     */
+    public boolean hasPlayers(String world) {
+        Map<Long, List<Player>> cells = worlds.get(world);
+        return cells != null && !cells.isEmpty();
+    }
+
+    /**
+     * Get the current tick of the index. The tick is increased with every {@link #refresh()} and therefore once per
+     * server tick.
+     *
+     * @return current tick
+     */
+    public long tick() {
+        return tick;
+    }
+
+    /**
+     * Get the context of a player for the current tick. The context is created on first access and discarded with the
+     * next {@link #refresh()}.
+     *
+     * @param player player of the context
+     * @return context of the player
+     */
+    public PlayerContext context(Player player) {
+        return contexts.computeIfAbsent(player.getUniqueId(), k -> PlayerContext.of(player));
+    }
+
+    /**
+     * Get the positions of all players in a world for the current tick. The snapshot is created on first access in a
+     * tick and reused afterwards.
+     *
+     * @param world world of the players
+     * @return positions of the players
+     */
+    public PlayerPositions positions(World world) {
+        PlayerPositions snapshot = positions.computeIfAbsent(world.getName(), k -> new PlayerPositions());
+        if (snapshot.tick() != tick) {
+            snapshot.rebuild(world.getPlayers(), tick);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Checks if a player changed its cell since the last call of this method.
+     *
+     * @return true if the grid changed
+     */
+    public boolean pollChanges() {
+        boolean result = changed;
+        changed = false;
+        return result;
+    }
+
+    private void remove(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry == null) return;
+        Map<Long, List<Player>> cells = worlds.get(entry.world);
+        if (cells == null) return;
+        List<Player> players = cells.get(entry.cell);
+        if (players == null) return;
+        players.remove(entry.player);
+        if (players.isEmpty()) {
+            cells.remove(entry.cell);
+        }
+    }
+
+    private boolean isCellChange(Location from, Location to) {
+        if (to == null) return false;
+        if (from.getWorld() != to.getWorld()) return true;
+        return from.getBlockX() >> cellShift != to.getBlockX() >> cellShift
+                || from.getBlockZ() >> cellShift != to.getBlockZ() >> cellShift;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (isCellChange(event.getFrom(), event.getTo())) {
+            dirty.add(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (isCellChange(event.getFrom(), event.getTo())) {
+            dirty.add(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        dirty.add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        dirty.add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        dirty.add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        dirty.remove(event.getPlayer());
+        remove(event.getPlayer().getUniqueId());
+        contexts.remove(event.getPlayer().getUniqueId());
+        changed = true;
+    }
+
+    private static final class Entry {
+        private final Player player;
+        private final String world;
+        private final long cell;
+
+        private Entry(Player player, String world, long cell) {
+            this.player = player;
+            this.world = world;
+            this.cell = cell;
+        }
+    }
+}
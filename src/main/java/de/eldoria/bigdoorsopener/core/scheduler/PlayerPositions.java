@@ -0,0 +1,213 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A snapshot of the positions of all players in a world.
+ * <p>
+ * The positions are stored in packed arrays. Block coordinates are stored as x, y, z triples in a int array and the
+ * exact positions in a double array. A snapshot is created once per tick and world by the {@link PlayerIndex} and
+ * shared by all world scoped conditions of all doors in this world.
+ * <p>
+ * Worlds with many players additionally get a grid of chunk sized cells. Queries for a small area only visit the
+ * players in the cells which overlap the area.
+ */
+public final class PlayerPositions {
+    /**
+     * Minimum amount of players before a grid is created.
+     */
+    private static final int GRID_MIN_PLAYERS = 32;
+    private static final int CELL_SHIFT = 4;
+    private static final int INDEX_BITS = 20;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private int size;
+    private int[] blocks = new int[0];
+    private double[] positions = new double[0];
+    /**
+     * Sorted cell keys of the players. Every entry contains the cell in the upper and the player index in the lower
+     * bits. Null if the world has not enough players.
+     */
+    private long[] grid;
+    private long tick = -1;
+
+    private static long cell(int blockX, int blockZ) {
+        return ((long) ((blockX >> CELL_SHIFT) & 0x3FFFFF) << 22) | ((blockZ >> CELL_SHIFT) & 0x3FFFFF);
+    }
+
+    /**
+     * Rebuilds the snapshot from the players of a world.
+     *
+     * @param players players of the world
+     * @param tick    tick of the snapshot
+     */
+    void rebuild(List<Player> players, long tick) {
+        this.tick = tick;
+        size = players.size();
+        if (blocks.length < size * 3) {
+            blocks = new int[size * 3];
+            positions = new double[size * 3];
+        }
+        for (int i = 0; i < size; i++) {
+            Location location = players.get(i).getLocation();
+            blocks[i * 3] = location.getBlockX();
+            blocks[i * 3 + 1] = location.getBlockY();
+            blocks[i * 3 + 2] = location.getBlockZ();
+            positions[i * 3] = location.getX();
+            positions[i * 3 + 1] = location.getY();
+            positions[i * 3 + 2] = location.getZ();
+        }
+        buildGrid();
+    }
+
+    long tick() {
+        return tick;
+    }
+
+    private void buildGrid() {
+        if (size < GRID_MIN_PLAYERS || size > INDEX_MASK) {
+            grid = null;
+            return;
+        }
+        if (grid == null || grid.length != size) {
+            grid = new long[size];
+        }
+        for (int i = 0; i < size; i++) {
+            grid[i] = cell(blocks[i * 3], blocks[i * 3 + 2]) << INDEX_BITS | i;
+        }
+        Arrays.sort(grid);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int blockX(int index) {
+        return blocks[index * 3];
+    }
+
+    public int blockY(int index) {
+        return blocks[index * 3 + 1];
+    }
+
+    public int blockZ(int index) {
+        return blocks[index * 3 + 2];
+    }
+
+    public double x(int index) {
+        return positions[index * 3];
+    }
+
+    public double y(int index) {
+        return positions[index * 3 + 1];
+    }
+
+    public double z(int index) {
+        return positions[index * 3 + 2];
+    }
+
+    /**
+     * Checks if any player stands in a block inside the box. The bounds are inclusive.
+     *
+     * @param minX min x block coordinate
+     * @param minY min y block coordinate
+     * @param minZ min z block coordinate
+     * @param maxX max x block coordinate
+     * @param maxY max y block coordinate
+     * @param maxZ max z block coordinate
+     * @return true if a player is inside the box
+     */
+    public boolean anyInside(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return anyInside(minX, minY, minZ, maxX, maxY, maxZ, null);
+    }
+
+    /**
+     * Checks if any player stands in a block inside the box, which also matches the predicate. The bounds are
+     * inclusive. The predicate is only tested for players inside the box.
+     *
+     * @param minX      min x block coordinate
+     * @param minY      min y block coordinate
+     * @param minZ      min z block coordinate
+     * @param maxX      max x block coordinate
+     * @param maxY      max y block coordinate
+     * @param maxZ      max z block coordinate
+     * @param predicate predicate for the block coordinates or null
+     * @return true if a matching player is inside the box
+     */
+    public boolean anyInside(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockPredicate predicate) {
+        if (size == 0 || minX > maxX || minY > maxY || minZ > maxZ) return false;
+
+        if (grid != null) {
+            long cellsX = ((long) maxX >> CELL_SHIFT) - (minX >> CELL_SHIFT) + 1;
+            long cellsZ = ((long) maxZ >> CELL_SHIFT) - (minZ >> CELL_SHIFT) + 1;
+            if (cellsX * cellsZ < size) {
+                return anyInsideGrid(minX, minY, minZ, maxX, maxY, maxZ, predicate);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (matches(i, minX, minY, minZ, maxX, maxY, maxZ, predicate)) return true;
+        }
+        return false;
+    }
+
+    private boolean anyInsideGrid(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockPredicate predicate) {
+        for (int cellX = minX >> CELL_SHIFT; cellX <= maxX >> CELL_SHIFT; cellX++) {
+            for (int cellZ = minZ >> CELL_SHIFT; cellZ <= maxZ >> CELL_SHIFT; cellZ++) {
+                long cell = cell(cellX << CELL_SHIFT, cellZ << CELL_SHIFT);
+                for (int i = lowerBound(cell << INDEX_BITS); i < size && grid[i] >>> INDEX_BITS == cell; i++) {
+                    if (matches((int) (grid[i] & INDEX_MASK), minX, minY, minZ, maxX, maxY, maxZ, predicate)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (grid[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean matches(int index, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockPredicate predicate) {
+        int x = blocks[index * 3];
+        if (x < minX || x > maxX) return false;
+        int y = blocks[index * 3 + 1];
+        if (y < minY || y > maxY) return false;
+        int z = blocks[index * 3 + 2];
+        if (z < minZ || z > maxZ) return false;
+        return predicate == null || predicate.test(x, y, z);
+    }
+
+    /**
+     * A predicate for block coordinates.
+     */
+    @FunctionalInterface
+    public interface BlockPredicate {
+        boolean test(int x, int y, int z);
+    }
+}
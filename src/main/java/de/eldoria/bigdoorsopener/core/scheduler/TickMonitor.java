@@ -0,0 +1,61 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+
+import java.lang.reflect.Method;
+
+/**
+ * Estimates the milliseconds per tick of the server.
+ * <p>
+ * The average tick time of the server is used if the server provides it. Otherwise the time between two ticks is
+ * measured. This time is at least 50 milliseconds, even if the server has nothing to do.
+ */
+final class TickMonitor {
+    private static final double SMOOTHING = 0.05;
+    private final Server server = Bukkit.getServer();
+    private final Method averageTickTime = averageTickTime();
+    private long lastTick = -1;
+    private double mspt = 50;
+
+    /**
+     * Called once per tick.
+     */
+    void tick() {
+        long now = System.nanoTime();
+        if (lastTick != -1) {
+            mspt += ((now - lastTick) / 1_000_000.0 - mspt) * SMOOTHING;
+        }
+        lastTick = now;
+    }
+
+    /**
+     * Get the estimated milliseconds per tick.
+     *
+     * @return milliseconds per tick
+     */
+    double mspt() {
+        if (averageTickTime != null) {
+            try {
+                return (double) averageTickTime.invoke(server);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                // fall back to the measured time
+            }
+        }
+        return mspt;
+    }
+
+    private Method averageTickTime() {
+        try {
+            return server.getClass().getMethod("getAverageTickTime");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
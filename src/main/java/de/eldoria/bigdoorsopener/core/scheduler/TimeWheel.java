@@ -0,0 +1,175 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import de.eldoria.bigdoorsopener.conditions.standalone.Time;
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A timer wheel for the doors with time conditions of a single world, keyed on the full time of the world.
+ * <p>
+ * Every door is scheduled at the full time where the next open or close tick of its time conditions changes the state
+ * of the condition. The wheel has one slot per tick. A door is stored in the slot of its due time and stays there for
+ * further rounds until its due time is reached. Advancing the wheel by one tick only visits a single slot, regardless of the amount of doors.
+ * <p>
+ * A jump back in time or a jump of more than a day, for example by a time command, reschedules all doors and wakes them
+ * up, because any transition may have been skipped.
+ */
+final class TimeWheel {
+    private static final int SLOTS = 256;
+    private static final int MASK = SLOTS - 1;
+
+    private final Map<ConditionalDoor, Entry> entries = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final List<Entry>[] slots = new List[SLOTS];
+    private final List<Entry> fired = new ArrayList<>();
+    /**
+     * Full time of the last advance or -1 if the wheel was not advanced yet.
+     */
+    private long time = -1;
+
+    TimeWheel() {
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Adds a door or replaces the ticks of a door. Doors are scheduled once the full time of the world is known.
+     *
+     * @param door     door to add
+     * @param dayTicks ticks of the day when the state of the door may change
+     */
+    void add(ConditionalDoor door, int[] dayTicks) {
+        remove(door);
+        if (dayTicks.length == 0) return;
+        Entry entry = new Entry(door, dayTicks);
+        entries.put(door, entry);
+        if (time != -1) {
+            schedule(entry, time);
+        }
+    }
+
+    /**
+     * Removes a door from the wheel.
+     *
+     * @param door door to remove
+     */
+    void remove(ConditionalDoor door) {
+        Entry entry = entries.remove(door);
+        if (entry == null || entry.due == -1) return;
+        slots[slot(entry.due)].remove(entry);
+    }
+
+    void clear() {
+        entries.clear();
+        for (List<Entry> slot : slots) {
+            slot.clear();
+        }
+    }
+
+    /**
+     * Unschedules all doors. The doors are scheduled again with the next advance. Should be called when the world is
+     * unloaded.
+     */
+    void reset() {
+        time = -1;
+        for (List<Entry> slot : slots) {
+            slot.clear();
+        }
+        for (Entry entry : entries.values()) {
+            entry.due = -1;
+        }
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Advances the wheel to the current full time of the world and wakes the doors whose next transition was reached.
+     * The first advance only schedules the doors.
+     *
+     * @param fullTime current full time of the world
+     * @param wake     consumer for the doors which reached a transition
+     */
+    void advance(long fullTime, Consumer<ConditionalDoor> wake) {
+        long last = time;
+        time = fullTime;
+        if (last == -1) {
+            rescheduleAll(fullTime);
+            return;
+        }
+        if (last == fullTime) return;
+
+        if (fullTime < last || fullTime - last >= Time.DAY_TICKS) {
+            rescheduleAll(fullTime);
+            entries.keySet().forEach(wake);
+            return;
+        }
+
+        long steps = Math.min(fullTime - last, SLOTS);
+        for (long tick = last + 1; tick <= last + steps; tick++) {
+            List<Entry> slot = slots[slot(tick)];
+            if (slot.isEmpty()) continue;
+            for (int i = slot.size() - 1; i >= 0; i--) {
+                Entry entry = slot.get(i);
+                if (entry.due > fullTime) continue;
+                slot.remove(i);
+                fired.add(entry);
+            }
+        }
+
+        for (Entry entry : fired) {
+            schedule(entry, fullTime);
+            wake.accept(entry.door);
+        }
+        fired.clear();
+    }
+
+    private void rescheduleAll(long fullTime) {
+        for (List<Entry> slot : slots) {
+            slot.clear();
+        }
+        for (Entry entry : entries.values()) {
+            schedule(entry, fullTime);
+        }
+    }
+
+    private void schedule(Entry entry, long fullTime) {
+        long due = Long.MAX_VALUE;
+        for (int dayTick : entry.dayTicks) {
+            due = Math.min(due, Time.nextTransition(fullTime, dayTick));
+        }
+        entry.due = due;
+        slots[slot(due)].add(entry);
+    }
+
+    private static int slot(long fullTime) {
+        return (int) (fullTime & MASK);
+    }
+
+    private static final class Entry {
+        private final ConditionalDoor door;
+        private final int[] dayTicks;
+        /**
+         * Full time of the next transition or -1 if the door is not scheduled.
+         */
+        private long due = -1;
+
+        private Entry(ConditionalDoor door, int[] dayTicks) {
+            this.door = door;
+            this.dayTicks = dayTicks;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import de.eldoria.bigdoorsopener.config.Config;
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Limits the amount of doors which are animated at the same time.
+ * <p>
+ * Toggles are queued and started when the global and the per chunk limit of animating doors allow it. Opens triggered
+ * by a player are started before all other toggles. A door has at most one queued toggle. A newer toggle replaces the
+ * queued one and a toggle which is no longer required is removed from the queue.
+ * <p>
+ * A door is animating until big doors completed the toggle and the door is no longer busy.
+ */
+public class ToggleDispatcher {
+    /**
+     * Ticks after which a animation is considered as done, even if big doors did not report it.
+     */
+    private static final long ANIMATION_TIMEOUT = 20 * 60;
+
+    private final Config config;
+    private final BiFunction<ConditionalDoor, Boolean, CompletableFuture<Boolean>> toggle;
+    private final Predicate<ConditionalDoor> busy;
+    private final Map<ConditionalDoor, Request> prioritized = new LinkedHashMap<>();
+    private final Map<ConditionalDoor, Request> queued = new LinkedHashMap<>();
+    private final Map<ConditionalDoor, Animation> animating = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> chunks = new HashMap<>();
+    private long tick;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param config config which provides the limits
+     * @param toggle function which sets the state of a door
+     * @param busy   predicate which checks if a door is moving
+     */
+    public ToggleDispatcher(Config config, BiFunction<ConditionalDoor, Boolean, CompletableFuture<Boolean>> toggle,
+                            Predicate<ConditionalDoor> busy) {
+        this.config = config;
+        this.toggle = toggle;
+        this.busy = busy;
+    }
+
+    /**
+     * Packs the coordinates of a chunk into a single long.
+     *
+     * @param position position in the chunk
+     * @return packed chunk key
+     */
+    private static long chunkKey(Vector position) {
+        int chunkX = position.getBlockX() >> 4;
+        int chunkZ = position.getBlockZ() >> 4;
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Queues a toggle of a door. A queued toggle of the door is replaced.
+     *
+     * @param door   door to toggle
+     * @param open   true if the door should be opened
+     * @param player player which opened the door or null
+     */
+    public void request(ConditionalDoor door, boolean open, Player player) {
+        Request request = new Request(open, player);
+        if (open && player != null) {
+            queued.remove(door);
+            prioritized.put(door, request);
+        } else {
+            prioritized.remove(door);
+            queued.put(door, request);
+        }
+    }
+
+    /**
+     * Removes the queued toggle of a door.
+     *
+     * @param door door which should not be toggled anymore
+     */
+    public void cancel(ConditionalDoor door) {
+        prioritized.remove(door);
+        queued.remove(door);
+    }
+
+    /**
+     * Removes all queued toggles.
+     */
+    public void clear() {
+        prioritized.clear();
+        queued.clear();
+    }
+
+    /**
+     * Starts queued toggles as long as the limits allow it. Must be called once per tick from the main thread.
+     */
+    public void dispatch() {
+        tick++;
+        if (!animating.isEmpty()) {
+            animating.values().removeIf(animation -> {
+                boolean done = animation.completed && !busy.test(animation.door);
+                if (!done && tick - animation.start < ANIMATION_TIMEOUT) return false;
+                release(animation);
+                return true;
+            });
+        }
+
+        if (!start(prioritized)) return;
+        start(queued);
+    }
+
+    /**
+     * Starts the toggles of a queue.
+     *
+     * @param requests queue of requests
+     * @return false if the global limit was reached
+     */
+    private boolean start(Map<ConditionalDoor, Request> requests) {
+        int globalLimit = config.maxAnimatingDoors();
+        int chunkLimit = config.maxAnimatingDoorsPerChunk();
+        Iterator<Map.Entry<ConditionalDoor, Request>> iterator = requests.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (globalLimit > 0 && animating.size() >= globalLimit) return false;
+            Map.Entry<ConditionalDoor, Request> entry = iterator.next();
+            ConditionalDoor door = entry.getKey();
+            // wait until the current animation of the door is done
+            if (animating.containsKey(door)) continue;
+            long chunk = chunkKey(door.position());
+            Map<Long, Integer> worldChunks = chunks.computeIfAbsent(door.world(), k -> new HashMap<>());
+            int count = worldChunks.getOrDefault(chunk, 0);
+            if (chunkLimit > 0 && count >= chunkLimit) continue;
+
+            iterator.remove();
+            Request request = entry.getValue();
+            Animation animation = new Animation(door, chunk, tick);
+            animating.put(door, animation);
+            worldChunks.put(chunk, count + 1);
+            toggle.apply(door, request.open).whenComplete((res, err) -> {
+                animation.completed = true;
+                if (request.open && res != null && res) door.opened(request.player);
+            });
+        }
+        return true;
+    }
+
+    private void release(Animation animation) {
+        Map<Long, Integer> worldChunks = chunks.get(animation.door.world());
+        if (worldChunks == null) return;
+        worldChunks.computeIfPresent(animation.chunk, (k, v) -> v > 1 ? v - 1 : null);
+    }
+
+    private static final class Request {
+        private final boolean open;
+        private final Player player;
+
+        private Request(boolean open, Player player) {
+            this.open = open;
+            this.player = player;
+        }
+    }
+
+    private static final class Animation {
+        private final ConditionalDoor door;
+        private final long chunk;
+        private final long start;
+        /**
+         * Set by the future of big doors, which may complete on any thread.
+         */
+        private volatile boolean completed;
+
+        private Animation(ConditionalDoor door, long chunk, long start) {
+            this.door = door;
+            this.chunk = chunk;
+            this.start = start;
+        }
+    }
+}
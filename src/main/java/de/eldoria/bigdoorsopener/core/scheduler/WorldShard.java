@@ -0,0 +1,253 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.core.scheduler;
+
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import org.bukkit.World;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The doors of a single world.
+ * <p>
+ * Every shard has its own evaluation budget. A world with many doors does not delay the doors of other worlds. A shard
+ * is only evaluated while its world is loaded.
+ * <p>
+ * Only doors where all chunks are loaded are part of the rings. Doors in unloaded chunks are not touched until their
+ * chunks are loaded again.
+ * <p>
+ * Doors with players nearby are either in the near or the far tier. Doors in the near tier are polled with a higher
+ * rate. Doors which only depend on the time of the world are never polled. They are woken by the {@link TimeWheel}.
+ */
+final class WorldShard {
+    private final String name;
+    /**
+     * All registered doors of the world.
+     */
+    private final Set<ConditionalDoor> all = new HashSet<>();
+    /**
+     * All loaded doors of the world. Used for the slow idle sweep.
+     */
+    private final DoorRing doors = new DoorRing();
+    /**
+     * Doors which have players nearby and are polled with the refresh rate.
+     */
+    private final DoorRing activeDoors = new DoorRing();
+    /**
+     * Doors which have players close to the area of their conditions and are polled with the near refresh rate.
+     */
+    private final DoorRing nearDoors = new DoorRing();
+    /**
+     * Doors which only depend on the time of the world. They are not part of the tiers.
+     */
+    private final Set<ConditionalDoor> scheduled = new HashSet<>();
+    /**
+     * Scheduled doors which have players nearby.
+     */
+    private final Set<ConditionalDoor> scheduledActive = new HashSet<>();
+    /**
+     * Doors with a time condition scheduled at the next tick when a time condition changes its state.
+     */
+    private final TimeWheel timeWheel = new TimeWheel();
+    private World world;
+
+    WorldShard(String name, World world) {
+        this.name = name;
+        this.world = world;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Get the world of the shard.
+     *
+     * @return the world or null if the world is not loaded
+     */
+    World world() {
+        return world;
+    }
+
+    boolean isActive() {
+        return world != null;
+    }
+
+    /**
+     * Activates the shard when the world was loaded.
+     *
+     * @param world loaded world
+     */
+    void activate(World world) {
+        this.world = world;
+        timeWheel.reset();
+    }
+
+    /**
+     * Deactivates the shard when the world was unloaded. The doors stay registered.
+     */
+    void deactivate() {
+        world = null;
+        doors.clear();
+        activeDoors.clear();
+        nearDoors.clear();
+        scheduledActive.clear();
+        timeWheel.reset();
+    }
+
+    void add(ConditionalDoor door) {
+        all.add(door);
+    }
+
+    void remove(ConditionalDoor door) {
+        all.remove(door);
+        doors.remove(door);
+        activeDoors.remove(door);
+        nearDoors.remove(door);
+        scheduled.remove(door);
+        scheduledActive.remove(door);
+        timeWheel.remove(door);
+    }
+
+    /**
+     * Marks a door as loaded or unloaded. Unloaded doors are removed from all rings.
+     *
+     * @param door   door to mark
+     * @param loaded true if all chunks of the door are loaded
+     * @return true if the door was active
+     */
+    boolean setLoaded(ConditionalDoor door, boolean loaded) {
+        if (!all.contains(door)) return false;
+        if (loaded) {
+            doors.add(door);
+            return false;
+        }
+        doors.remove(door);
+        return deactivate(door);
+    }
+
+    /**
+     * Checks if all chunks of a door are loaded.
+     *
+     * @param door door to check
+     * @return true if the door is loaded
+     */
+    boolean isLoaded(ConditionalDoor door) {
+        return doors.contains(door);
+    }
+
+    /**
+     * Get all registered doors of the world, including doors in unloaded chunks.
+     *
+     * @return unmodifiable set of doors
+     */
+    Set<ConditionalDoor> all() {
+        return Collections.unmodifiableSet(all);
+    }
+
+    /**
+     * Checks if a door has players nearby.
+     *
+     * @param door door to check
+     * @return true if the door is in the near or far tier
+     */
+    boolean isActive(ConditionalDoor door) {
+        return activeDoors.contains(door) || nearDoors.contains(door) || scheduledActive.contains(door);
+    }
+
+    /**
+     * Adds a door to the far tier. Scheduled doors are only marked as active.
+     *
+     * @param door door to add
+     * @return true if the door was not active before
+     */
+    boolean activate(ConditionalDoor door) {
+        if (scheduled.contains(door)) return scheduledActive.add(door);
+        if (nearDoors.contains(door)) return false;
+        return activeDoors.add(door);
+    }
+
+    /**
+     * Removes a door from both tiers.
+     *
+     * @param door door to remove
+     * @return true if the door was active
+     */
+    boolean deactivate(ConditionalDoor door) {
+        return activeDoors.remove(door) | nearDoors.remove(door) | scheduledActive.remove(door);
+    }
+
+    /**
+     * Marks a door as scheduled. Scheduled doors are removed from the tiers and only evaluated when a input changes.
+     *
+     * @param door      door to mark
+     * @param scheduled true if the door only depends on the time of the world
+     */
+    void setScheduled(ConditionalDoor door, boolean scheduled) {
+        if (scheduled) {
+            if (!this.scheduled.add(door)) return;
+            if (activeDoors.remove(door) | nearDoors.remove(door)) {
+                scheduledActive.add(door);
+            }
+        } else {
+            if (!this.scheduled.remove(door)) return;
+            if (scheduledActive.remove(door)) {
+                activeDoors.add(door);
+            }
+        }
+    }
+
+    /**
+     * Moves an active door into the near or far tier.
+     *
+     * @param door door to move
+     * @param near true if the door should be moved into the near tier
+     * @return true if the tier of the door changed
+     */
+    boolean setTier(ConditionalDoor door, boolean near) {
+        if (near) {
+            if (!activeDoors.remove(door)) return false;
+            nearDoors.add(door);
+        } else {
+            if (!nearDoors.remove(door)) return false;
+            activeDoors.add(door);
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        return all.isEmpty();
+    }
+
+    DoorRing doors() {
+        return doors;
+    }
+
+    /**
+     * Get the active doors in the far tier.
+     *
+     * @return ring of doors
+     */
+    DoorRing activeDoors() {
+        return activeDoors;
+    }
+
+    /**
+     * Get the active doors in the near tier.
+     *
+     * @return ring of doors
+     */
+    DoorRing nearDoors() {
+        return nearDoors;
+    }
+
+    TimeWheel timeWheel() {
+        return timeWheel;
+    }
+}
@@ -8,9 +8,11 @@ package de.eldoria.bigdoorsopener.door;
 
 import com.google.common.base.Objects;
 import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.events.DoorModifiedEvent;
 import de.eldoria.bigdoorsopener.door.conditioncollections.ConditionBag;
 import de.eldoria.bigdoorsopener.door.conditioncollections.ConditionChain;
+import de.eldoria.bigdoorsopener.door.evaluator.CompiledEvaluator;
 import de.eldoria.eldoutilities.serialization.SerializationUtil;
 import de.eldoria.eldoutilities.serialization.TypeResolvingMap;
 import de.eldoria.eldoutilities.utils.EnumUtil;
@@ -80,6 +82,12 @@ public class ConditionalDoor implements ConfigurationSerializable {
      */
     private boolean invertOpen = false;
 
+    /**
+     * The compiled custom evaluator and the evaluator it was compiled from.
+     */
+    private transient CompiledEvaluator compiledEvaluator;
+    private transient String compiledFor;
+
 
     public ConditionalDoor(long doorUID, String world, Vector position, ConditionBag conditionBag) {
         this.doorUID = doorUID;
@@ -123,14 +131,14 @@ public class ConditionalDoor implements ConfigurationSerializable {
      * @return true if the door should be open or false if not.
      */
     public boolean getState(Player player, World world, boolean currentState) {
-        if (openTill != null && openTill.isAfter(Instant.now())) return true;
-
-        if (waitForOpen) {
-            return true;
-        }
+        if (isForcedOpen()) return true;
 
         switch (evaluationType) {
             case CUSTOM:
+                CompiledEvaluator compiled = compiledEvaluator();
+                if (compiled != null) {
+                    return compiled.evaluate(conditionBag, player, world, this, currentState);
+                }
                 String custom = conditionBag.custom(evaluator, player, world, this, currentState);
                 return BigDoorsOpener.JS().eval(custom, currentState);
             case AND:
@@ -142,6 +150,86 @@ public class ConditionalDoor implements ConfigurationSerializable {
         }
     }
 
+    /**
+     * Evaluates the world scoped conditions of the door once for all players. The result is passed to {@link
+     * #getState(PlayerContext, World, boolean, Boolean)} for every player.
+     *
+     * @param world        world of the door
+     * @param currentState the current state of the door.
+     * @return partial state of the world conditions or null if no world condition returned a state or the door uses a
+     * custom evaluator.
+     */
+    @Nullable
+    public Boolean getWorldState(World world, boolean currentState) {
+        if (evaluationType == EvaluationType.CUSTOM || isForcedOpen()) return null;
+        return conditionBag.worldState(evaluationType == EvaluationType.AND, world, this, currentState);
+    }
+
+    /**
+     * Checks if the state of the door is already decided by the world scoped conditions.
+     *
+     * @param worldState partial state of the world conditions provided by {@link #getWorldState(World, boolean)}
+     * @return the state of the door or null if the player conditions are required.
+     */
+    @Nullable
+    public Boolean getDecidedState(Boolean worldState) {
+        if (isForcedOpen()) return true;
+        if (worldState == null) return null;
+        if (evaluationType == EvaluationType.AND && !worldState) return false;
+        if (evaluationType == EvaluationType.OR && worldState) return true;
+        return null;
+    }
+
+    /**
+     * Get the state of the door for a player. Only the player scoped conditions are evaluated. The world scoped
+     * conditions are provided by the partial world state.
+     *
+     * @param context      context of the player for player sensitive calculations
+     * @param world        world of the door
+     * @param currentState the current state of the door.
+     * @param worldState   partial state of the world conditions provided by {@link #getWorldState(World, boolean)}
+     * @return true if the door should be open or false if not.
+     */
+    public boolean getState(PlayerContext context, World world, boolean currentState, Boolean worldState) {
+        if (evaluationType == EvaluationType.CUSTOM || isForcedOpen()) {
+            return getState(context == null ? null : context.player(), world, currentState);
+        }
+        return conditionBag.playerState(evaluationType == EvaluationType.AND, worldState, context, world, this, currentState);
+    }
+
+    /**
+     * Resolves the conditions of a door with a custom evaluator into an expression. The expression only depends on the
+     * values at the time of the call and can be evaluated off the main thread.
+     *
+     * @param world        world of the door
+     * @param currentState the current state of the door.
+     * @return the expression or null if the door does not use a custom evaluator which requires the js engine or if the
+     * state is already defined.
+     */
+    @Nullable
+    public String resolveCustom(World world, boolean currentState) {
+        if (evaluationType != EvaluationType.CUSTOM || isForcedOpen() || compiledEvaluator() != null) return null;
+        return conditionBag.custom(evaluator, null, world, this, currentState);
+    }
+
+    /**
+     * Get the compiled custom evaluator. The evaluator is compiled on first access after a change.
+     *
+     * @return compiled evaluator or null if the evaluator can only be evaluated by the js engine.
+     */
+    @Nullable
+    public CompiledEvaluator compiledEvaluator() {
+        if (!Objects.equal(compiledFor, evaluator)) {
+            compiledEvaluator = CompiledEvaluator.compile(evaluator).orElse(null);
+            compiledFor = evaluator;
+        }
+        return compiledEvaluator;
+    }
+
+    private boolean isForcedOpen() {
+        return waitForOpen || openTill != null && openTill.isAfter(Instant.now());
+    }
+
     public boolean openInverted(boolean open) {
         if (invertOpen) return !open;
         return open;
@@ -11,6 +11,7 @@ import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionContainer;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionGroup;
 import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.core.conditions.PlayerContext;
 import de.eldoria.bigdoorsopener.core.conditions.Scope;
 import de.eldoria.bigdoorsopener.core.events.ConditionAddedEvent;
 import de.eldoria.bigdoorsopener.core.events.ConditionBagModifiedEvent;
@@ -27,7 +28,10 @@ import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -39,6 +43,28 @@ import java.util.stream.Collectors;
 public class ConditionBag implements ConditionCollection {
     private final Map<String, List<DoorCondition>> playerScope = new LinkedHashMap<>();
     private final Map<String, List<DoorCondition>> worldScope = new LinkedHashMap<>();
+    // flattened snapshots of the scope maps. Rebuilt when a condition is added or removed.
+    private List<DoorCondition> playerConditions = Collections.emptyList();
+    private List<DoorCondition> worldConditions = Collections.emptyList();
+    private List<DoorCondition> conditions = Collections.emptyList();
+    /**
+     * All conditions ordered by their cost. Cheap conditions are evaluated first to short circuit expensive ones.
+     * <p>
+     * Stateless conditions are safe to reorder. {@link DoorCondition#isStateful() Stateful} conditions change their
+     * state when they are evaluated and are not evaluated after a short circuit. Conditions are therefore only ordered
+     * between two stateful conditions. This way a stateful condition is evaluated in the same cases as in the declared
+     * order.
+     */
+    private DoorCondition[] costOrderedArray = new DoorCondition[0];
+    /**
+     * The scopes of the conditions in {@link #costOrderedArray}.
+     */
+    private Scope[] costOrderedScopes = new Scope[0];
+    /**
+     * The conditions of {@link #costOrderedArray} split by scope.
+     */
+    private DoorCondition[] playerOrdered = new DoorCondition[0];
+    private DoorCondition[] worldOrdered = new DoorCondition[0];
 
     private ConditionBag(Collection<DoorCondition> playerScope, Collection<DoorCondition> worldScope) {
         playerScope.forEach(this::addConditionSilent);
@@ -77,16 +103,19 @@ public class ConditionBag implements ConditionCollection {
         }
         conditions.clear();
         conditions.add(condition);
+        rebuild();
         Bukkit.getPluginManager().callEvent(new ConditionAddedEvent(door, this, condition));
     }
 
     public void addCondition(ConditionalDoor door,DoorCondition condition) {
         getConditions(condition).add(condition);
+        rebuild();
         Bukkit.getPluginManager().callEvent(new ConditionAddedEvent(door, this, condition));
     }
 
     public void addConditionSilent(DoorCondition condition) {
         getConditions(condition).add(condition);
+        rebuild();
     }
 
     public boolean removeCondition(ConditionalDoor door,ConditionGroup group, int index) {
@@ -94,6 +123,7 @@ public class ConditionBag implements ConditionCollection {
             return false;
         }
         DoorCondition condition = getConditions(group).remove(index);
+        rebuild();
         Bukkit.getPluginManager().callEvent(new ConditionRemovedEvent(door, this, condition));
         return true;
     }
@@ -125,6 +155,27 @@ public class ConditionBag implements ConditionCollection {
         throw new IllegalArgumentException("The requested group does not exist.");
     }
 
+    /**
+     * Get the state of a condition group. If a group contains multiple conditions the first condition is used.
+     *
+     * @param group        group to check
+     * @param player       player which should be checked
+     * @param world        world of the door
+     * @param door         door which is checked
+     * @param currentState the current state of the door
+     * @return state of the condition or null if the group is not set
+     */
+    public Boolean getState(ConditionGroup group, Player player, World world, ConditionalDoor door, boolean currentState) {
+        List<DoorCondition> conditions = playerScope.get(group.name());
+        if (conditions != null && !conditions.isEmpty()) {
+            if (player == null) return false;
+            return conditions.get(0).isOpen(player, world, door, currentState);
+        }
+        conditions = worldScope.get(group.name());
+        if (conditions == null || conditions.isEmpty()) return null;
+        return conditions.get(0).isOpen(player, world, door, currentState);
+    }
+
     public boolean isConditionSet(ConditionGroup container) {
         return !getConditions(container).isEmpty();
     }
@@ -162,45 +213,192 @@ public class ConditionBag implements ConditionCollection {
         return evaluationString;
     }
 
+    @Override
+    public boolean or(Player player, World world, ConditionalDoor door, boolean currentState) {
+        Boolean current = null;
+        for (int i = 0; i < costOrderedArray.length; i++) {
+            Boolean open = getState(i, player, world, door, currentState);
+            if (open == null) continue;
+            if (open) return true;
+            current = false;
+        }
+        return current == null ? currentState : current;
+    }
+
+    @Override
+    public boolean and(Player player, World world, ConditionalDoor door, boolean currentState) {
+        Boolean current = null;
+        for (int i = 0; i < costOrderedArray.length; i++) {
+            Boolean open = getState(i, player, world, door, currentState);
+            if (open == null) continue;
+            if (!open) return false;
+            current = true;
+        }
+        return current == null ? currentState : current;
+    }
+
+    /**
+     * Evaluates only the world scoped conditions. The result is the same for every player and can be passed to {@link
+     * #playerState(boolean, Boolean, PlayerContext, World, ConditionalDoor, boolean)} for each player.
+     *
+     * @param and          true if the conditions are combined with and. False for or.
+     * @param world        world of the door
+     * @param door         door which is checked
+     * @param currentState the current state of the door
+     * @return partial state of the world conditions or null if no world condition returned a state
+     */
+    public Boolean worldState(boolean and, World world, ConditionalDoor door, boolean currentState) {
+        return combine(and, null, worldOrdered, null, world, door, currentState);
+    }
+
+    /**
+     * Evaluates only the player scoped conditions and combines them with the partial state of the world conditions.
+     *
+     * @param and          true if the conditions are combined with and. False for or.
+     * @param worldState   partial state of the world conditions
+     * @param context      context of the player which should be checked
+     * @param world        world of the door
+     * @param door         door which is checked
+     * @param currentState the current state of the door
+     * @return true if the door should be open
+     */
+    public boolean playerState(boolean and, Boolean worldState, PlayerContext context, World world, ConditionalDoor door,
+                               boolean currentState) {
+        Boolean state;
+        if (context == null && playerOrdered.length != 0) {
+            // player conditions are false without a player
+            state = and ? Boolean.FALSE : Boolean.TRUE.equals(worldState);
+        } else {
+            state = combine(and, worldState, playerOrdered, context, world, door, currentState);
+        }
+        return state == null ? currentState : state;
+    }
+
+    private static Boolean combine(boolean and, Boolean current, DoorCondition[] conditions, PlayerContext context,
+                                   World world, ConditionalDoor door, boolean currentState) {
+        if (current != null && current != and) return current;
+        for (DoorCondition condition : conditions) {
+            Boolean open = condition.isOpen(context, world, door, currentState);
+            if (open == null) continue;
+            if (open != and) return open;
+            current = open;
+        }
+        return current;
+    }
+
+    private Boolean getState(int index, Player player, World world, ConditionalDoor door, boolean currentState) {
+        if (costOrderedScopes[index] == Scope.PLAYER && player == null) {
+            return false;
+        }
+        return costOrderedArray[index].isOpen(player, world, door, currentState);
+    }
+
+    /**
+     * Rebuilds the flattened condition snapshots from the scope maps.
+     */
+    private void rebuild() {
+        List<DoorCondition> player = flatten(playerScope);
+        List<DoorCondition> world = flatten(worldScope);
+        List<DoorCondition> all = new ArrayList<>(player);
+        all.addAll(world);
+
+        List<ConditionContainer> containers = new ArrayList<>(all.size());
+        for (DoorCondition condition : all) {
+            containers.add(ConditionRegistrar.getContainerByClass(condition.getClass())
+                    .orElseThrow(() -> new ConditionCreationException("The requested condition " + condition.getClass().getName() + "is not registered")));
+        }
+
+        // stateful conditions split the conditions into segments. Only the conditions of a segment are ordered.
+        Integer[] order = new Integer[all.size()];
+        int[] segments = new int[all.size()];
+        int segment = 0;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            segments[i] = segment;
+            if (all.get(i).isStateful()) segment++;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> segments[i])
+                .thenComparing(i -> all.get(i).isStateful())
+                .thenComparingInt(i -> containers.get(i).getCost()));
+
+        DoorCondition[] ordered = new DoorCondition[order.length];
+        Scope[] scopes = new Scope[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ordered[i] = all.get(order[i]);
+            scopes[i] = containers.get(order[i]).getScope();
+        }
+
+        playerConditions = Collections.unmodifiableList(player);
+        worldConditions = Collections.unmodifiableList(world);
+        conditions = Collections.unmodifiableList(all);
+        costOrderedArray = ordered;
+        costOrderedScopes = scopes;
+        List<DoorCondition> playerOrderedList = new ArrayList<>(player.size());
+        List<DoorCondition> worldOrderedList = new ArrayList<>(world.size());
+        for (int i = 0; i < ordered.length; i++) {
+            (scopes[i] == Scope.PLAYER ? playerOrderedList : worldOrderedList).add(ordered[i]);
+        }
+        playerOrdered = playerOrderedList.toArray(new DoorCondition[0]);
+        worldOrdered = worldOrderedList.toArray(new DoorCondition[0]);
+    }
+
+    private static List<DoorCondition> flatten(Map<String, List<DoorCondition>> scope) {
+        List<DoorCondition> result = new ArrayList<>();
+        scope.values().forEach(result::addAll);
+        return result;
+    }
+
     @Override
     public void evaluated() {
-        getConditions().forEach(DoorCondition::evaluated);
+        for (DoorCondition condition : conditions) {
+            condition.evaluated();
+        }
     }
 
     @Override
     public void opened(Player player) {
-        getPlayerConditions().forEach(c -> c.opened(player));
+        for (DoorCondition condition : playerConditions) {
+            condition.opened(player);
+        }
     }
 
     @Override
     public boolean requiresPlayerEvaluation() {
-        return !playerScope.isEmpty();
+        return !playerConditions.isEmpty();
     }
 
     @Override
     public boolean isEmpty() {
-        return worldScope.isEmpty() && playerScope.isEmpty();
+        return conditions.isEmpty();
     }
 
     @Override
     public ConditionBag copy() {
         return new ConditionBag(
-                getPlayerConditions().stream().map(DoorCondition::clone).collect(Collectors.toList()),
-                getWorldConditions().stream().map(DoorCondition::clone).collect(Collectors.toList()));
+                playerConditions.stream().map(DoorCondition::clone).collect(Collectors.toList()),
+                worldConditions.stream().map(DoorCondition::clone).collect(Collectors.toList()));
     }
 
+    /**
+     * Get all conditions with player scope.
+     *
+     * @return unmodifiable collection of conditions
+     */
     public Collection<DoorCondition> getPlayerConditions() {
-        return playerScope.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        return playerConditions;
     }
 
+    /**
+     * Get all conditions with world scope.
+     *
+     * @return unmodifiable collection of conditions
+     */
     public Collection<DoorCondition> getWorldConditions() {
-        return worldScope.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        return worldConditions;
     }
 
     @Override
     public Collection<DoorCondition> getConditions() {
-        Collection<DoorCondition> values = new ArrayList<>(getPlayerConditions());
-        values.addAll(getWorldConditions());
-        return values;
+        return conditions;
     }
 }
@@ -0,0 +1,124 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.door.evaluator;
+
+import de.eldoria.bigdoorsopener.core.conditions.ConditionGroup;
+import de.eldoria.bigdoorsopener.door.ConditionalDoor;
+import de.eldoria.bigdoorsopener.door.conditioncollections.ConditionBag;
+import de.eldoria.bigdoorsopener.util.JsSyntaxHelper;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Optional;
+
+/**
+ * A custom evaluator which was compiled into an expression tree.
+ * <p>
+ * The tree follows the semantic of the js evaluation. A group which is not set has the value {@code null}. Operators
+ * return their operands like in js. If the expression evaluates to {@code null} the current state is returned.
+ * <p>
+ * Conditions are resolved lazily. A condition which is not required to decide the result is never evaluated.
+ */
+public final class CompiledEvaluator {
+    private final String evaluator;
+    private final Node root;
+    private final ConditionGroup[] groups;
+
+    CompiledEvaluator(String evaluator, Node root, ConditionGroup[] groups) {
+        this.evaluator = evaluator;
+        this.root = root;
+        this.groups = groups;
+    }
+
+    /**
+     * Compiles a custom evaluator. The evaluator will be translated with {@link JsSyntaxHelper#translateEvaluator(String)}
+     * first.
+     *
+     * @param evaluator evaluator to compile
+     * @return compiled evaluator or a empty optional if the evaluator uses syntax which is not supported.
+     */
+    public static Optional<CompiledEvaluator> compile(String evaluator) {
+        return EvaluatorCompiler.compile(evaluator);
+    }
+
+    /**
+     * Evaluates the expression with the conditions of a condition bag.
+     *
+     * @param conditionBag condition bag which provides the values of the groups
+     * @param player       player which should be checked
+     * @param world        world of the door
+     * @param door         door which is checked
+     * @param currentState the current state of the door
+     * @return true if the door should be open
+     */
+    public boolean evaluate(ConditionBag conditionBag, Player player, World world, ConditionalDoor door, boolean currentState) {
+        Boolean result = root.evaluate(new Evaluation(conditionBag, player, world, door, currentState));
+        return result == null ? currentState : result;
+    }
+
+    /**
+     * Get the evaluator this expression was compiled from.
+     *
+     * @return evaluator string
+     */
+    public String evaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Provides the values for a single evaluation.
+     */
+    interface Context {
+        Boolean group(int slot);
+
+        boolean currentState();
+    }
+
+    /**
+     * A single evaluation of the expression. The state of a group is only requested from the condition bag when the
+     * expression reaches it and is remembered for the rest of the evaluation.
+     */
+    private final class Evaluation implements Context {
+        private final ConditionBag conditionBag;
+        private final Player player;
+        private final World world;
+        private final ConditionalDoor door;
+        private final boolean currentState;
+        private final Boolean[] values = new Boolean[groups.length];
+        private final boolean[] resolved = new boolean[groups.length];
+
+        private Evaluation(ConditionBag conditionBag, Player player, World world, ConditionalDoor door, boolean currentState) {
+            this.conditionBag = conditionBag;
+            this.player = player;
+            this.world = world;
+            this.door = door;
+            this.currentState = currentState;
+        }
+
+        @Override
+        public Boolean group(int slot) {
+            if (!resolved[slot]) {
+                values[slot] = conditionBag.getState(groups[slot], player, world, door, currentState);
+                resolved[slot] = true;
+            }
+            return values[slot];
+        }
+
+        @Override
+        public boolean currentState() {
+            return currentState;
+        }
+    }
+
+    /**
+     * A node of the expression tree.
+     */
+    @FunctionalInterface
+    interface Node {
+        Boolean evaluate(Context context);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.door.evaluator;
+
+import de.eldoria.bigdoorsopener.core.conditions.ConditionGroup;
+import de.eldoria.bigdoorsopener.core.conditions.ConditionRegistrar;
+import de.eldoria.bigdoorsopener.door.evaluator.CompiledEvaluator.Node;
+import de.eldoria.bigdoorsopener.util.JsSyntaxHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Recursive descent parser for the custom evaluator syntax.
+ * <p>
+ * Supported are {@code true}, {@code false}, {@code null}, {@code currentState}, condition groups, the operators
+ * {@code && || ! == !=}, parenthesis and {@code if/else} statements with blocks separated by {@code ;}.
+ */
+final class EvaluatorCompiler {
+    private final List<String> tokens;
+    private final List<ConditionGroup> groups = new ArrayList<>();
+    private int index;
+
+    private EvaluatorCompiler(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    static Optional<CompiledEvaluator> compile(String evaluator) {
+        if (evaluator == null) return Optional.empty();
+        List<String> tokens = tokenize(JsSyntaxHelper.translateEvaluator(evaluator));
+        if (tokens == null) return Optional.empty();
+
+        EvaluatorCompiler compiler = new EvaluatorCompiler(tokens);
+        Node root = compiler.statements();
+        if (root == null || compiler.index != tokens.size()) return Optional.empty();
+        return Optional.of(new CompiledEvaluator(evaluator, root, compiler.groups.toArray(new ConditionGroup[0])));
+    }
+
+    private static List<String> tokenize(String string) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < string.length()) {
+            char c = string.charAt(i);
+            if (Character.isLetter(c)) {
+                int start = i;
+                while (i < string.length() && Character.isLetterOrDigit(string.charAt(i))) i++;
+                tokens.add(string.substring(start, i));
+                continue;
+            }
+            if (i + 1 < string.length()) {
+                String op = string.substring(i, i + 2);
+                if ("&&".equals(op) || "||".equals(op) || "==".equals(op) || "!=".equals(op)) {
+                    tokens.add(op);
+                    i += 2;
+                    continue;
+                }
+            }
+            if ("!(){};".indexOf(c) != -1) {
+                tokens.add(String.valueOf(c));
+                i++;
+                continue;
+            }
+            // unsupported char
+            return null;
+        }
+        return tokens;
+    }
+
+    private String peek() {
+        return index < tokens.size() ? tokens.get(index) : null;
+    }
+
+    private boolean accept(String token) {
+        if (token.equals(peek())) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses statements until the end of a block. The value of the statements is the value of the last statement.
+     */
+    private Node statements() {
+        List<Node> statements = new ArrayList<>();
+        while (peek() != null && !"}".equals(peek())) {
+            if (accept(";")) continue;
+            Node statement = statement();
+            if (statement == null) return null;
+            statements.add(statement);
+        }
+        if (statements.isEmpty()) return c -> null;
+        return statements.get(statements.size() - 1);
+    }
+
+    private Node statement() {
+        if (!accept("if")) return expression();
+
+        if (!accept("(")) return null;
+        Node condition = expression();
+        if (condition == null || !accept(")")) return null;
+        Node then = body();
+        if (then == null) return null;
+        Node otherwise = accept("else") ? body() : c -> null;
+        if (otherwise == null) return null;
+        return c -> truthy(condition.evaluate(c)) ? then.evaluate(c) : otherwise.evaluate(c);
+    }
+
+    private Node body() {
+        if (!accept("{")) return statement();
+        Node block = statements();
+        if (block == null || !accept("}")) return null;
+        return block;
+    }
+
+    private Node expression() {
+        Node left = and();
+        while (left != null && accept("||")) {
+            Node first = left;
+            Node right = and();
+            if (right == null) return null;
+            left = c -> {
+                Boolean value = first.evaluate(c);
+                return truthy(value) ? value : right.evaluate(c);
+            };
+        }
+        return left;
+    }
+
+    private Node and() {
+        Node left = equality();
+        while (left != null && accept("&&")) {
+            Node first = left;
+            Node right = equality();
+            if (right == null) return null;
+            left = c -> {
+                Boolean value = first.evaluate(c);
+                return truthy(value) ? right.evaluate(c) : value;
+            };
+        }
+        return left;
+    }
+
+    private Node equality() {
+        Node left = unary();
+        while (left != null) {
+            boolean equals;
+            if (accept("==")) {
+                equals = true;
+            } else if (accept("!=")) {
+                equals = false;
+            } else {
+                break;
+            }
+            Node first = left;
+            Node right = unary();
+            if (right == null) return null;
+            left = c -> Objects.equals(first.evaluate(c), right.evaluate(c)) == equals;
+        }
+        return left;
+    }
+
+    private Node unary() {
+        if (accept("!")) {
+            Node node = unary();
+            if (node == null) return null;
+            return c -> !truthy(node.evaluate(c));
+        }
+        return primary();
+    }
+
+    private Node primary() {
+        if (accept("(")) {
+            Node node = expression();
+            if (node == null || !accept(")")) return null;
+            return node;
+        }
+        String token = peek();
+        if (token == null || !Character.isLetter(token.charAt(0))) return null;
+        index++;
+
+        switch (token) {
+            case "true":
+                return c -> true;
+            case "false":
+                return c -> false;
+            case "null":
+                return c -> null;
+            case "if":
+            case "else":
+                return null;
+            default:
+                break;
+        }
+
+        if ("currentState".equalsIgnoreCase(token)) {
+            return CompiledEvaluator.Context::currentState;
+        }
+
+        Optional<ConditionGroup> group = ConditionRegistrar.getConditionGroup(token);
+        if (!group.isPresent()) return null;
+        int slot = slot(group.get());
+        return c -> c.group(slot);
+    }
+
+    private int slot(ConditionGroup group) {
+        int slot = groups.indexOf(group);
+        if (slot != -1) return slot;
+        groups.add(group);
+        return groups.size() - 1;
+    }
+
+    private static boolean truthy(Boolean value) {
+        return value != null && value;
+    }
+}
@@ -12,10 +12,15 @@ import de.eldoria.bigdoorsopener.core.BigDoorsOpener;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -122,8 +127,81 @@ public class CachingJSEngine {
     @SuppressWarnings("unchecked")
     public <T> T evalUnsafe(String string, T defaultValue) throws ExecutionException, ScriptException, ClassCastException {
         if (engine == null) return defaultValue;
-        Object t = cache.get(string, () -> engine.eval(string));
+        // the engine is used by the main thread and the evaluation worker.
+        Object t = cache.get(string, () -> {
+            synchronized (engine) {
+                return engine.eval(string);
+            }
+        });
         if (t == null) return defaultValue;
         return (T) t;
     }
+
+    /**
+     * Compiles a script which uses variables. The variables are bound on every evaluation. Results of compiled scripts
+     * are not cached.
+     *
+     * @param script script to compile
+     * @return compiled script
+     */
+    public Expression compile(String script) {
+        if (engine == null) return new Expression(script, null);
+        CompiledScript compiled = null;
+        if (engine instanceof Compilable) {
+            try {
+                synchronized (engine) {
+                    compiled = ((Compilable) engine).compile(script);
+                }
+            } catch (ScriptException e) {
+                BigDoorsOpener.logger().log(Level.WARNING, "Could not compile \"" + script + "\"", e);
+            }
+        }
+        return new Expression(script, compiled);
+    }
+
+    /**
+     * A script which is evaluated with bound variables.
+     */
+    public final class Expression {
+        private final String script;
+        private final CompiledScript compiled;
+
+        private Expression(String script, CompiledScript compiled) {
+            this.script = script;
+            this.compiled = compiled;
+        }
+
+        /**
+         * Evaluates the script with variables.
+         *
+         * @param variables    values of the variables by name
+         * @param defaultValue default value which should be returned if anything goes wrong.
+         * @param <T>          type which should be returned
+         * @return evaluated value or default value
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T eval(Map<String, Object> variables, T defaultValue) {
+            if (engine == null) return defaultValue;
+            Object result;
+            try {
+                synchronized (engine) {
+                    Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+                    bindings.putAll(variables);
+                    try {
+                        result = compiled == null ? engine.eval(script) : compiled.eval();
+                    } finally {
+                        for (String name : variables.keySet()) {
+                            bindings.remove(name);
+                        }
+                    }
+                }
+            } catch (ScriptException e) {
+                BigDoorsOpener.logger().log(Level.WARNING,
+                        "An error occurred while evaluating \"" + script + "\"", e);
+                return defaultValue;
+            }
+            if (result == null) return defaultValue;
+            return (T) result;
+        }
+    }
 }
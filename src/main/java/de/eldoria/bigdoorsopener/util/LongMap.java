@@ -0,0 +1,176 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map with primitive long keys.
+ * <p>
+ * Uses open addressing with linear probing. Keys are not boxed and no entry objects are created.
+ *
+ * @param <V> type of values
+ */
+public final class LongMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    public LongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongMap(int expected) {
+        allocate(capacity(expected));
+    }
+
+    private static int capacity(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2 && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key key
+     * @return value or null if the key is not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) return (V) values[index];
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Maps a value to a key.
+     *
+     * @param key   key
+     * @param value value
+     * @return the previous value or null if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        used[index] = true;
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping of a key.
+     *
+     * @param key key
+     * @return the removed value or null if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                shift(index);
+                size--;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries. The capacity is kept.
+     */
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Closes the gap of a removed entry by moving following entries of the same probe sequence back.
+     *
+     * @param gap index of the removed entry
+     */
+    private void shift(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (!used[index]) break;
+            int home = hash(keys[index]) & mask;
+            // move the entry if the gap lies between its home slot and its current slot.
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        used[gap] = false;
+        values[gap] = null;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.util;
+
+import de.eldoria.bigdoorsopener.core.adapter.PlaceholderResolver;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A evaluator with placeholders, which is parsed once.
+ * <p>
+ * Every placeholder is replaced by a variable. The script is compiled once and the resolved values are bound to the
+ * variables on evaluation. Values of placeholders outside of a string are bound as number or boolean if possible. A
+ * placeholder which is the only content of a string is bound as string.
+ * <p>
+ * Placeholders which are only a part of a string can not be replaced by a variable. Such evaluators are evaluated like
+ * before with the resolved values inserted into the script.
+ */
+public final class PlaceholderExpression {
+    private static final String VARIABLE = "__bdoPlaceholder";
+
+    private final String evaluator;
+    private final String script;
+    private final String[] placeholders;
+    private final boolean[] strings;
+    private CachingJSEngine.Expression compiled;
+
+    private PlaceholderExpression(String evaluator, String script, List<String> placeholders, List<Boolean> strings) {
+        this.evaluator = evaluator;
+        this.script = script;
+        this.placeholders = placeholders.toArray(new String[0]);
+        this.strings = new boolean[strings.size()];
+        for (int i = 0; i < this.strings.length; i++) {
+            this.strings[i] = strings.get(i);
+        }
+    }
+
+    /**
+     * Parses the placeholders of a evaluator.
+     *
+     * @param evaluator evaluator to parse
+     * @return parsed evaluator
+     */
+    public static PlaceholderExpression parse(String evaluator) {
+        StringBuilder script = new StringBuilder(evaluator.length());
+        List<String> placeholders = new ArrayList<>();
+        List<Boolean> strings = new ArrayList<>();
+        Map<String, Integer> variables = new HashMap<>();
+
+        char quote = 0;
+        int i = 0;
+        while (i < evaluator.length()) {
+            char c = evaluator.charAt(i);
+            int end = c == '%' ? placeholderEnd(evaluator, i) : -1;
+
+            if (end < 0) {
+                if (quote != 0 && c == '\\' && i + 1 < evaluator.length()) {
+                    script.append(c).append(evaluator.charAt(i + 1));
+                    i += 2;
+                    continue;
+                }
+                if (quote == 0 && (c == '"' || c == '\'')) {
+                    quote = c;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                script.append(c);
+                i++;
+                continue;
+            }
+
+            String placeholder = evaluator.substring(i + 1, end);
+            boolean string;
+            if (quote == 0) {
+                string = false;
+            } else if (evaluator.charAt(i - 1) == quote && end + 1 < evaluator.length()
+                    && evaluator.charAt(end + 1) == quote) {
+                // the placeholder is the whole string. replace the string with the variable.
+                string = true;
+                script.setLength(script.length() - 1);
+                quote = 0;
+                end++;
+            } else {
+                return new PlaceholderExpression(evaluator, null, placeholders, strings);
+            }
+
+            String key = (string ? "\"" : "") + placeholder;
+            Integer index = variables.get(key);
+            if (index == null) {
+                index = placeholders.size();
+                variables.put(key, index);
+                placeholders.add(placeholder);
+                strings.add(string);
+            }
+            script.append(VARIABLE).append(index);
+            i = end + 1;
+        }
+        return new PlaceholderExpression(evaluator, script.toString(), placeholders, strings);
+    }
+
+    /**
+     * Get the index of the closing percent sign of a placeholder. Like placeholder api only tokens with a underscore
+     * are considered as placeholder.
+     *
+     * @param evaluator evaluator
+     * @param start     index of the opening percent sign
+     * @return index of the closing percent sign or -1 if no placeholder starts at this index
+     */
+    private static int placeholderEnd(String evaluator, int start) {
+        boolean underscore = false;
+        for (int i = start + 1; i < evaluator.length(); i++) {
+            char c = evaluator.charAt(i);
+            if (c == '%') return underscore ? i : -1;
+            if (c == '_') underscore = true;
+            if (Character.isWhitespace(c) || c == '"' || c == '\'') return -1;
+        }
+        return -1;
+    }
+
+    private static Object bind(String value, boolean string) {
+        if (string) return value;
+        String trimmed = value.trim();
+        if ("true".equalsIgnoreCase(trimmed)) return true;
+        if ("false".equalsIgnoreCase(trimmed)) return false;
+        try {
+            return Double.parseDouble(trimmed);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Evaluates the evaluator for a player.
+     *
+     * @param player   player to resolve the placeholders for
+     * @param resolver resolver of the placeholders
+     * @param engine   engine to evaluate the script
+     * @return result of the evaluator or null if the evaluation failed
+     */
+    public Boolean eval(Player player, PlaceholderResolver resolver, CachingJSEngine engine) {
+        if (script == null) {
+            return engine.eval(insert(player, resolver), null);
+        }
+
+        if (compiled == null) {
+            compiled = engine.compile(script);
+        }
+
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < placeholders.length; i++) {
+            variables.put(VARIABLE + i, bind(resolver.resolve(player, placeholders[i]), strings[i]));
+        }
+        return compiled.eval(variables, null);
+    }
+
+    private String insert(Player player, PlaceholderResolver resolver) {
+        StringBuilder builder = new StringBuilder(evaluator.length());
+        int i = 0;
+        while (i < evaluator.length()) {
+            int end = evaluator.charAt(i) == '%' ? placeholderEnd(evaluator, i) : -1;
+            if (end < 0) {
+                builder.append(evaluator.charAt(i));
+                i++;
+                continue;
+            }
+            builder.append(resolver.resolve(player, evaluator.substring(i + 1, end)));
+            i = end + 1;
+        }
+        return builder.toString();
+    }
+}
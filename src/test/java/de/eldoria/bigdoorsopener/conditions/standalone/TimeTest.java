@@ -0,0 +1,62 @@
+/*
+ *     SPDX-License-Identifier: AGPL-3.0-only
+ *
+ *     Copyright (C) 2021 EldoriaRPG Team and Contributor
+ */
+
+package de.eldoria.bigdoorsopener.conditions.standalone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeTest {
+    private static final int OPEN = 1000;
+    private static final int CLOSE = 13000;
+    private static final long DAY = 5 * Time.DAY_TICKS;
+
+    @Test
+    void stateAtTransitionTicks() {
+        Time time = new Time(OPEN, CLOSE, true);
+        assertFalse(time.shouldBeOpen(DAY + OPEN));
+        assertTrue(time.shouldBeOpen(DAY + OPEN + 1));
+        assertTrue(time.shouldBeOpen(DAY + CLOSE));
+        assertFalse(time.shouldBeOpen(DAY + CLOSE + 1));
+    }
+
+    @Test
+    void nextTransitionIsFirstChangedTick() {
+        assertEquals(DAY + OPEN + 1, Time.nextTransition(DAY, OPEN));
+        assertEquals(DAY + OPEN + 1, Time.nextTransition(DAY + OPEN, OPEN));
+        assertEquals(DAY + Time.DAY_TICKS + OPEN + 1, Time.nextTransition(DAY + OPEN + 1, OPEN));
+        assertEquals(DAY + CLOSE + 1, Time.nextTransition(DAY + OPEN + 1, CLOSE));
+        assertEquals(DAY + Time.DAY_TICKS, Time.nextTransition(DAY + 100, Time.DAY_TICKS - 1));
+        assertEquals(DAY + Time.DAY_TICKS, Time.nextTransition(DAY + 100, Time.DAY_TICKS));
+    }
+
+    @Test
+    void unforcedStateChangesWhenWoken() {
+        Time time = new Time(OPEN, CLOSE, false);
+        assertFalse(time.shouldBeOpen(DAY));
+
+        long open = Time.nextTransition(DAY, OPEN);
+        assertTrue(time.shouldBeOpen(open));
+        assertNull(time.shouldBeOpen(open + 1));
+
+        long close = Time.nextTransition(open, CLOSE);
+        assertFalse(time.shouldBeOpen(close));
+        assertNull(time.shouldBeOpen(close + 1));
+    }
+
+    @Test
+    void unforcedStateIsReportedOnceWhenTimeIsFrozen() {
+        Time time = new Time(OPEN, CLOSE, false);
+        long open = Time.nextTransition(DAY, OPEN);
+        assertTrue(time.shouldBeOpen(open));
+        assertNull(time.shouldBeOpen(open));
+        assertNull(time.shouldBeOpen(open));
+    }
+}